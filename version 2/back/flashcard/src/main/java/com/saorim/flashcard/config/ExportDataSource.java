@@ -0,0 +1,47 @@
+package com.saorim.flashcard.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Pool separado, só de leitura, para a exportação em NDJSON. No MySQL as conexões usam
+ * useCursorFetch e as linhas chegam em blocos do fetch size; o pool principal fica sem
+ * cursor, com prepared statements no cliente e rewriteBatchedStatements nos batches.
+ * Não é um bean DataSource para não desligar a configuração automática do pool principal.
+ */
+@Component
+public class ExportDataSource implements DisposableBean {
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportDataSource(DataSourceProperties properties,
+                            @Value("${app.flashcards.export.pool-size:4}") int poolSize,
+                            @Value("${app.flashcards.export.fetch-size:500}") int fetchSize) {
+        // O pool só abre conexões na primeira exportação
+        this.dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("export");
+        this.dataSource.setMaximumPoolSize(poolSize);
+        this.dataSource.setMinimumIdle(0);
+        this.dataSource.setReadOnly(true);
+        if (dataSource.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            this.dataSource.addDataSourceProperty("useCursorFetch", "true");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    @Override
+    public void destroy() {
+        dataSource.close();
+    }
+}
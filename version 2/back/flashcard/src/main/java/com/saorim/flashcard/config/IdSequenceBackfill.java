@@ -0,0 +1,63 @@
+package com.saorim.flashcard.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Ajusta os geradores de id (tabela id_sequences, otimizador pooled-lo) para continuar depois
+ * do maior id de cada tabela; next_val guarda o último id entregue
+ * (hibernate.id.generator.stored_last_used). Bases que vêm do AUTO_INCREMENT mantêm os ids
+ * existentes e os novos nunca colidem com eles. O valor só sobe, então rodar de novo (ou em
+ * vários nós) é seguro. Depende do EntityManagerFactory para rodar depois da atualização do schema.
+ */
+@Component
+public class IdSequenceBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceBackfill.class);
+
+    // Valor do gerador (pkColumnValue) -> tabela da entidade
+    private static final Map<String, String> SEQUENCES = Map.of(
+        "users", "users",
+        "categories", "categories",
+        "flashcards", "flashcards");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        SEQUENCES.forEach(this::backfill);
+    }
+
+    private void backfill(String sequence, String table) {
+        long last = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        List<Long> current = jdbcTemplate.queryForList(
+            "SELECT next_val FROM id_sequences WHERE sequence_name = ?", Long.class, sequence);
+        if (current.isEmpty()) {
+            try {
+                jdbcTemplate.update("INSERT INTO id_sequences (sequence_name, next_val) VALUES (?, ?)", sequence, last);
+                log.info("Gerador de ids de {} iniciado depois de {}", table, last);
+                return;
+            } catch (DuplicateKeyException e) {
+                // Outro nó criou a linha ao mesmo tempo; cai no ajuste abaixo
+            }
+        }
+        int updated = jdbcTemplate.update(
+            "UPDATE id_sequences SET next_val = ? WHERE sequence_name = ? AND next_val < ?", last, sequence, last);
+        if (updated > 0) {
+            log.info("Gerador de ids de {} avançado para depois de {}", table, last);
+        }
+    }
+}
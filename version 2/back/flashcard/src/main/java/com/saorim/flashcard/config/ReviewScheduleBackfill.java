@@ -0,0 +1,37 @@
+package com.saorim.flashcard.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Preenche a agenda SM-2 dos cards criados antes dela existir: cards já revisados vencem
+ * na data da última revisão e os demais vencem agora. Depende do EntityManagerFactory
+ * para rodar depois da atualização do schema.
+ */
+@Component
+public class ReviewScheduleBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewScheduleBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReviewScheduleBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        int updated = jdbcTemplate.update(
+            "UPDATE flashcards SET next_due_at = COALESCE(last_reviewed, CURRENT_TIMESTAMP), " +
+            "ease_factor = COALESCE(ease_factor, 2.5), interval_days = COALESCE(interval_days, 0), " +
+            "repetitions = COALESCE(repetitions, 0) WHERE next_due_at IS NULL");
+        if (updated > 0) {
+            log.info("Agenda de revisão preenchida para {} flashcards", updated);
+        }
+    }
+}
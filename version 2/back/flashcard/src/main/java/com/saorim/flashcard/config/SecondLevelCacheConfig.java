@@ -0,0 +1,80 @@
+package com.saorim.flashcard.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache sobre Caffeine, local a cada nó) para Category, User
+ * e as consultas de categorias. As regiões são criadas aqui, com tamanho e TTL de app.cache; uma
+ * região sem configuração derruba a subida (missing_cache_strategy: fail). Escritas pelo Hibernate,
+ * inclusive DELETE/UPDATE em JPQL, invalidam as regiões afetadas; SQL nativo precisa declarar as
+ * tabelas (HibernateHints.HINT_NATIVE_SPACES) para não esvaziar o cache inteiro, e SQL via
+ * JdbcTemplate não pode escrever nas tabelas cacheadas.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String CATEGORIES = "categories";
+    public static final String USERS = "users";
+    public static final String CATEGORY_QUERIES = "category-queries";
+
+    // Regiões padrão do cache de consultas; os timestamps não podem expirar nem ser despejados
+    private static final String QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry,
+                                              @Value("${app.cache.categories.max-size:50000}") long categoriesMaxSize,
+                                              @Value("${app.cache.categories.ttl:1h}") Duration categoriesTtl,
+                                              @Value("${app.cache.users.max-size:10000}") long usersMaxSize,
+                                              @Value("${app.cache.users.ttl:1h}") Duration usersTtl,
+                                              @Value("${app.cache.category-queries.max-size:10000}") long queriesMaxSize,
+                                              @Value("${app.cache.category-queries.ttl:30m}") Duration queriesTtl) {
+        // URI própria: cada contexto Spring (ex.: nos testes) tem regiões separadas
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("flashcard-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, meterRegistry, CATEGORIES, OptionalLong.of(categoriesMaxSize), categoriesTtl);
+        createRegion(cacheManager, meterRegistry, USERS, OptionalLong.of(usersMaxSize), usersTtl);
+        // O TTL das consultas não deve passar o das entidades: uma consulta cacheada cujos cards
+        // saíram do cache é resolvida com um SELECT por id
+        createRegion(cacheManager, meterRegistry, CATEGORY_QUERIES, OptionalLong.of(queriesMaxSize), queriesTtl);
+        createRegion(cacheManager, meterRegistry, QUERY_RESULTS, OptionalLong.of(1000), queriesTtl);
+        createRegion(cacheManager, meterRegistry, UPDATE_TIMESTAMPS, OptionalLong.empty(), null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.putAll(Map.of(ConfigSettings.CACHE_MANAGER, hibernateCacheManager));
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry,
+                                     String name, OptionalLong maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxSize);
+        configuration.setExpireAfterWrite(ttl != null ? OptionalLong.of(ttl.toNanos()) : OptionalLong.empty());
+        // As entradas do Hibernate são imutáveis; guardar por referência evita serializar a cada acesso
+        configuration.setStoreByValue(false);
+        // Estatísticas do JCache (acertos, falhas, despejos) publicadas como cache.gets etc., tag cache=<região>
+        configuration.setStatisticsEnabled(true);
+        JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(name, configuration));
+    }
+}
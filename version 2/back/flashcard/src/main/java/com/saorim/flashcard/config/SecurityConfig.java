@@ -2,8 +2,10 @@ package com.saorim.flashcard.config;
 
 import java.util.Arrays;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -18,9 +20,13 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.saorim.flashcard.security.AccessTokenDenylist;
+import com.saorim.flashcard.security.CachingUserDetailsService;
 import com.saorim.flashcard.security.JwtAuthenticationFilter;
 import com.saorim.flashcard.security.JwtTokenProvider;
-import com.saorim.flashcard.security.UserDetailsServiceImpl;
+import com.saorim.flashcard.security.TokenRevocationRegistry;
+
+import jakarta.servlet.DispatcherType;
 
 @Configuration
 @EnableWebSecurity
@@ -28,10 +34,15 @@ import com.saorim.flashcard.security.UserDetailsServiceImpl;
 public class SecurityConfig {
 
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsServiceImpl userDetailsService;
-    public SecurityConfig(JwtTokenProvider tokenProvider, UserDetailsServiceImpl userDetailsService) {
+    private final CachingUserDetailsService userDetailsService;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final AccessTokenDenylist denylist;
+    public SecurityConfig(JwtTokenProvider tokenProvider, CachingUserDetailsService userDetailsService,
+                          TokenRevocationRegistry revocationRegistry, AccessTokenDenylist denylist) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.revocationRegistry = revocationRegistry;
+        this.denylist = denylist;
     }
 
 	@Bean
@@ -39,6 +50,11 @@ public class SecurityConfig {
 		http.csrf(csrf -> csrf.disable())
 				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 				.authorizeHttpRequests(auth -> auth.requestMatchers("/api/auth/**").permitAll()
+						// O despacho ASYNC continua uma requisição já autorizada (ex.: exportação em NDJSON)
+						.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+						// Progresso da exclusão de conta: a conta já está desativada; o acesso vem do token
+						// assinado em X-Purge-Token, devolvido pelo DELETE e conferido no controller
+						.requestMatchers(HttpMethod.GET, "/api/users/purge-jobs/*").permitAll()
 						.requestMatchers("/v3/api-docs/**").permitAll()
 						.requestMatchers("/swagger-ui/**").permitAll()
 						.requestMatchers("/swagger-ui.html").permitAll()
@@ -58,12 +74,12 @@ public class SecurityConfig {
 
     @Bean
     JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(tokenProvider, userDetailsService);
+        return new JwtAuthenticationFilter(tokenProvider, userDetailsService, revocationRegistry, denylist);
     }
 
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(@Value("${app.auth.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -77,6 +93,7 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("Link", "X-Next-Cursor", "Retry-After", "Location", "X-Purge-Token"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
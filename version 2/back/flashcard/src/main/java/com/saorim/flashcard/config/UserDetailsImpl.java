@@ -14,12 +14,26 @@ public class UserDetailsImpl implements UserDetails {
     private String username;
     private String email;
     private String password;
+    private long tokenVersion;
+    private boolean enabled = true;
 
     public UserDetailsImpl(User user) {
         this.id = user.getId();
         this.username = user.getUsername();
         this.email = user.getEmail();
         this.password = user.getPassword();
+        this.tokenVersion = user.getTokenVersion();
+        this.enabled = !user.isDisabled();
+    }
+
+    /**
+     * Monta o principal a partir das claims do token, sem consultar o banco
+     */
+    public UserDetailsImpl(Long id, String username, String email, long tokenVersion) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.tokenVersion = tokenVersion;
     }
 
     public Long getId() {
@@ -30,6 +44,10 @@ public class UserDetailsImpl implements UserDetails {
         return email;
     }
 
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.emptyList();
@@ -62,6 +80,6 @@ public class UserDetailsImpl implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 }
@@ -1,18 +1,24 @@
 package com.saorim.flashcard.controller;
 
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.saorim.flashcard.dto.JwtResponse;
 import com.saorim.flashcard.dto.LoginRequest;
+import com.saorim.flashcard.dto.RefreshTokenRequest;
 import com.saorim.flashcard.dto.SignupRequest;
 import com.saorim.flashcard.service.AuthService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -27,25 +33,29 @@ public class AuthController {
 
     @PostMapping("/login")
     @Operation(summary = "Authenticate user and return JWT token")
-    public ResponseEntity<JwtResponse> authenticateUser(@RequestBody LoginRequest loginRequest) {
-        try {
-            JwtResponse jwtResponse = authService.authenticateUser(loginRequest);
-            return ResponseEntity.ok(jwtResponse);
-        } catch (Exception e) {
-            e.printStackTrace(); // Para debug
-            throw e;
-        }
+    public CompletableFuture<ResponseEntity<JwtResponse>> authenticateUser(@RequestBody LoginRequest loginRequest) {
+        return authService.authenticateUser(loginRequest).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/signup")
     @Operation(summary = "Register a new user")
-    public ResponseEntity<String> registerUser(@RequestBody SignupRequest signUpRequest) {
-        try {
-            String message = authService.registerUser(signUpRequest);
-            return ResponseEntity.ok(message);
-        } catch (Exception e) {
-            e.printStackTrace(); // Para debug
-            throw e;
-        }
+    public CompletableFuture<ResponseEntity<String>> registerUser(@RequestBody SignupRequest signUpRequest) {
+        return authService.registerUser(signUpRequest).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Exchange a refresh token for a new access token and refresh token")
+    public ResponseEntity<JwtResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refreshToken(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the current access token and the given refresh token")
+    public ResponseEntity<String> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                         @RequestBody(required = false) RefreshTokenRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+            ? authorization.substring(7) : null;
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.ok("Logout realizado com sucesso!");
     }
 }
\ No newline at end of file
@@ -3,7 +3,6 @@ package com.saorim.flashcard.controller;
 import java.util.List;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,7 +12,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.saorim.flashcard.dto.CategoryCopyResult;
 import com.saorim.flashcard.model.Category;
+import com.saorim.flashcard.security.CurrentUserId;
 import com.saorim.flashcard.service.CategoryService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -32,34 +33,40 @@ public class CategoryController {
 
     @PostMapping
     @Operation(summary = "Create a new category")
-    public ResponseEntity<Category> createCategory(@RequestBody Category category, Authentication authentication) {
-        return ResponseEntity.ok(categoryService.createCategory(category, authentication.getName()));
+    public ResponseEntity<Category> createCategory(@RequestBody Category category, @CurrentUserId Long userId) {
+        return ResponseEntity.ok(categoryService.createCategory(category, userId));
     }
 
     @GetMapping
     @Operation(summary = "Get all categories for the current user")
-    public ResponseEntity<List<Category>> getAllCategories(Authentication authentication) {
-        return ResponseEntity.ok(categoryService.getAllCategories(authentication.getName()));
+    public ResponseEntity<List<Category>> getAllCategories(@CurrentUserId Long userId) {
+        return ResponseEntity.ok(categoryService.getAllCategories(userId));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a specific category by ID")
-    public ResponseEntity<Category> getCategory(@PathVariable Long id, Authentication authentication) {
-        return ResponseEntity.ok(categoryService.getCategory(id, authentication.getName()));
+    public ResponseEntity<Category> getCategory(@PathVariable Long id, @CurrentUserId Long userId) {
+        return ResponseEntity.ok(categoryService.getCategory(id, userId));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a category")
     public ResponseEntity<Category> updateCategory(@PathVariable Long id, 
                                                  @RequestBody Category category,
-                                                 Authentication authentication) {
-        return ResponseEntity.ok(categoryService.updateCategory(id, category, authentication.getName()));
+                                                 @CurrentUserId Long userId) {
+        return ResponseEntity.ok(categoryService.updateCategory(id, category, userId));
+    }
+
+    @PostMapping("/{id}/duplicate")
+    @Operation(summary = "Duplicate a category with all of its flashcards")
+    public ResponseEntity<CategoryCopyResult> duplicateCategory(@PathVariable Long id, @CurrentUserId Long userId) {
+        return ResponseEntity.ok(categoryService.duplicateCategory(id, userId));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a category")
-    public ResponseEntity<?> deleteCategory(@PathVariable Long id, Authentication authentication) {
-        categoryService.deleteCategory(id, authentication.getName());
+    public ResponseEntity<?> deleteCategory(@PathVariable Long id, @CurrentUserId Long userId) {
+        categoryService.deleteCategory(id, userId);
         return ResponseEntity.ok().build();
     }
 }
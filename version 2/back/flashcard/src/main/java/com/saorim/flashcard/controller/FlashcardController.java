@@ -1,9 +1,12 @@
 package com.saorim.flashcard.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,12 +16,28 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.saorim.flashcard.dto.BulkOperationRequest;
+import com.saorim.flashcard.dto.BulkOperationResult;
+import com.saorim.flashcard.dto.CursorPage;
+import com.saorim.flashcard.dto.FlashcardIdsRequest;
+import com.saorim.flashcard.dto.FlashcardLookupResult;
+import com.saorim.flashcard.dto.FlashcardSearchHit;
+import com.saorim.flashcard.dto.ImportResult;
+import com.saorim.flashcard.dto.ReviewBatchRequest;
+import com.saorim.flashcard.dto.ReviewResult;
+import com.saorim.flashcard.dto.Suggestion;
 import com.saorim.flashcard.model.Flashcard;
+import com.saorim.flashcard.security.CurrentUserId;
+import com.saorim.flashcard.service.FlashcardImportService;
 import com.saorim.flashcard.service.FlashcardService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/flashcards")
@@ -26,111 +45,200 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 public class FlashcardController {
 
     private final FlashcardService flashcardService;
+    private final FlashcardImportService flashcardImportService;
 
-    public FlashcardController(FlashcardService flashcardService) {
+    public FlashcardController(FlashcardService flashcardService, FlashcardImportService flashcardImportService) {
         this.flashcardService = flashcardService;
+        this.flashcardImportService = flashcardImportService;
     }
 
     @PostMapping
     @Operation(summary = "Create a new flashcard")
-    public ResponseEntity<Flashcard> createFlashcard(@RequestBody Flashcard flashcard, Authentication authentication) {
-        return ResponseEntity.ok(flashcardService.createFlashcard(flashcard, authentication.getName()));
+    public ResponseEntity<Flashcard> createFlashcard(@RequestBody Flashcard flashcard, @CurrentUserId Long userId) {
+        return ResponseEntity.ok(flashcardService.createFlashcard(flashcard, userId));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import flashcards from a CSV, TSV or JSON/NDJSON file (columns: question, answer, category)")
+    public ResponseEntity<ImportResult> importFlashcards(@RequestParam("file") MultipartFile file,
+                                                         @RequestParam(required = false) String format,
+                                                         @CurrentUserId Long userId) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(flashcardImportService.importFlashcards(in, format, file.getOriginalFilename(), userId));
+        }
     }
 
     @GetMapping
     @Operation(summary = "Get all flashcards for the current user")
-    public ResponseEntity<List<Flashcard>> getAllFlashcards(Authentication authentication) {
-        return ResponseEntity.ok(flashcardService.getAllFlashcards(authentication.getName()));
+    public ResponseEntity<List<Flashcard>> getAllFlashcards(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @CurrentUserId Long userId) {
+        return page(flashcardService.getFlashcardsPage(userId, cursor, limit));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get several flashcards by id in one query; results follow the request order and unknown ids are listed in `missing`")
+    public ResponseEntity<FlashcardLookupResult> getFlashcardsByIds(@RequestParam List<Long> ids,
+                                                                    @CurrentUserId Long userId) {
+        return ResponseEntity.ok(flashcardService.getFlashcards(ids, userId));
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "Same as GET with `ids`, for id lists too long for the query string")
+    public ResponseEntity<FlashcardLookupResult> lookupFlashcards(@Valid @RequestBody FlashcardIdsRequest request,
+                                                                  @CurrentUserId Long userId) {
+        return ResponseEntity.ok(flashcardService.getFlashcards(request.getIds(), userId));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all flashcards for the current user as NDJSON, one flashcard per line")
+    public ResponseEntity<StreamingResponseBody> streamFlashcards(@CurrentUserId Long userId) {
+        StreamingResponseBody body = out -> flashcardService.exportFlashcards(userId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest existing questions and category names that start with the given prefix")
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam String prefix,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @CurrentUserId Long userId) {
+        return ResponseEntity.ok(flashcardService.suggest(prefix, userId, limit));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a specific flashcard by ID")
-    public ResponseEntity<Flashcard> getFlashcard(@PathVariable Long id, Authentication authentication) {
-        return ResponseEntity.ok(flashcardService.getFlashcard(id, authentication.getName()));
+    public ResponseEntity<Flashcard> getFlashcard(@PathVariable Long id, @CurrentUserId Long userId) {
+        return ResponseEntity.ok(flashcardService.getFlashcard(id, userId));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a flashcard")
     public ResponseEntity<Flashcard> updateFlashcard(@PathVariable Long id, 
                                                    @RequestBody Flashcard flashcard,
-                                                   Authentication authentication) {
-        return ResponseEntity.ok(flashcardService.updateFlashcard(id, flashcard, authentication.getName()));
+                                                   @CurrentUserId Long userId) {
+        return ResponseEntity.ok(flashcardService.updateFlashcard(id, flashcard, userId));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a flashcard")
-    public ResponseEntity<?> deleteFlashcard(@PathVariable Long id, Authentication authentication) {
-        flashcardService.deleteFlashcard(id, authentication.getName());
+    public ResponseEntity<?> deleteFlashcard(@PathVariable Long id, @CurrentUserId Long userId) {
+        flashcardService.deleteFlashcard(id, userId);
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/random")
-    @Operation(summary = "Get a random flashcard")
-    public ResponseEntity<Flashcard> getRandomFlashcard(Authentication authentication) {
-        return ResponseEntity.ok(flashcardService.getRandomFlashcard(authentication.getName()));
+    @Operation(summary = "Get a random flashcard, or `count` distinct random flashcards")
+    public ResponseEntity<?> getRandomFlashcard(@RequestParam(required = false) Integer count,
+                                                @CurrentUserId Long userId) {
+        if (count != null) {
+            return ResponseEntity.ok(flashcardService.getRandomFlashcards(userId, count));
+        }
+        return ResponseEntity.ok(flashcardService.getRandomFlashcard(userId));
     }
 
     @GetMapping("/category/{categoryId}")
     @Operation(summary = "Get flashcards by category")
     public ResponseEntity<List<Flashcard>> getFlashcardsByCategory(@PathVariable Long categoryId,
-                                                                  Authentication authentication) {
-        return ResponseEntity.ok(flashcardService.getFlashcardsByCategory(categoryId, authentication.getName()));
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limit,
+                                                                  @CurrentUserId Long userId) {
+        return page(flashcardService.getFlashcardsByCategoryPage(categoryId, userId, cursor, limit));
     }
     
     @PostMapping("/{id}/review")
-    @Operation(summary = "Mark flashcard as reviewed")
-    public ResponseEntity<String> markAsReviewed(@PathVariable Long id, Authentication authentication) {
-        flashcardService.updateReviewStatus(id, authentication.getName());
+    @Operation(summary = "Mark flashcard as reviewed, optionally graded 0-5 for the SM-2 scheduler")
+    public ResponseEntity<String> markAsReviewed(@PathVariable Long id,
+                                                 @RequestParam(required = false) Integer grade,
+                                                 @CurrentUserId Long userId) {
+        flashcardService.updateReviewStatus(id, userId, grade);
         return ResponseEntity.ok("Flashcard marcado como revisado!");
     }
 
+    @PostMapping("/reviews:batch")
+    @Operation(summary = "Mark several flashcards as reviewed in one request")
+    public ResponseEntity<List<ReviewResult>> markAsReviewedBatch(@Valid @RequestBody ReviewBatchRequest request,
+                                                                  @CurrentUserId Long userId) {
+        return ResponseEntity.ok(flashcardService.recordReviews(request.getReviews(), userId));
+    }
+
     @GetMapping("/due-for-review")
     @Operation(summary = "Get flashcards due for review")
-    public ResponseEntity<List<Flashcard>> getFlashcardsDueForReview(Authentication authentication) {
-        List<Flashcard> flashcards = flashcardService.getFlashcardsDueForReview(authentication.getName());
-        return ResponseEntity.ok(flashcards);
+    public ResponseEntity<List<Flashcard>> getFlashcardsDueForReview(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    @CurrentUserId Long userId) {
+        return page(flashcardService.getFlashcardsDueForReview(userId, cursor, limit));
     }
 
     @GetMapping("/due-for-review/category/{categoryId}")
     @Operation(summary = "Get flashcards due for review by category")
     public ResponseEntity<List<Flashcard>> getFlashcardsDueForReviewByCategory(@PathVariable Long categoryId, 
-                                                                              Authentication authentication) {
-        List<Flashcard> flashcards = flashcardService.getFlashcardsDueForReviewByCategory(categoryId, authentication.getName());
-        return ResponseEntity.ok(flashcards);
+                                                                              @RequestParam(required = false) String cursor,
+                                                                              @RequestParam(required = false) Integer limit,
+                                                                              @CurrentUserId Long userId) {
+        return page(flashcardService.getFlashcardsDueForReviewByCategory(categoryId, userId, cursor, limit));
     }
     
     @GetMapping("/search")
-    @Operation(summary = "Search flashcards by question or answer content")
-    public ResponseEntity<List<Flashcard>> searchFlashcards(@RequestParam String q, Authentication authentication) {
-        List<Flashcard> flashcards = flashcardService.searchFlashcards(q, authentication.getName());
-        return ResponseEntity.ok(flashcards);
+    @Operation(summary = "Search flashcards by question or answer content, ranked by relevance with highlights")
+    public ResponseEntity<List<FlashcardSearchHit>> searchFlashcards(@RequestParam String q,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit,
+                                                                     @CurrentUserId Long userId) {
+        return page(flashcardService.searchFlashcardsPage(q, userId, cursor, limit));
     }
 
     @GetMapping("/stats")
     @Operation(summary = "Get flashcards statistics")
-    public ResponseEntity<FlashcardService.FlashcardStats> getFlashcardStats(Authentication authentication) {
-        FlashcardService.FlashcardStats stats = flashcardService.getFlashcardStats(authentication.getName());
+    public ResponseEntity<FlashcardService.FlashcardStats> getFlashcardStats(@CurrentUserId Long userId) {
+        FlashcardService.FlashcardStats stats = flashcardService.getFlashcardStats(userId);
         return ResponseEntity.ok(stats);
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Move, delete or reset the review of many flashcards, chosen by ids or by a filter")
+    public ResponseEntity<BulkOperationResult> bulkOperation(@Valid @RequestBody BulkOperationRequest request,
+                                                             @CurrentUserId Long userId) {
+        return ResponseEntity.ok(flashcardService.bulkOperation(request, userId));
+    }
+
     @PostMapping("/{id}/duplicate")
     @Operation(summary = "Duplicate a flashcard")
-    public ResponseEntity<Flashcard> duplicateFlashcard(@PathVariable Long id, Authentication authentication) {
-        Flashcard duplicated = flashcardService.duplicateFlashcard(id, authentication.getName());
+    public ResponseEntity<Flashcard> duplicateFlashcard(@PathVariable Long id, @CurrentUserId Long userId) {
+        Flashcard duplicated = flashcardService.duplicateFlashcard(id, userId);
         return ResponseEntity.ok(duplicated);
     }
 
     @PostMapping("/{id}/reset-review")
     @Operation(summary = "Reset flashcard review status")
-    public ResponseEntity<String> resetReviewStatus(@PathVariable Long id, Authentication authentication) {
-        flashcardService.resetFlashcardReviewStatus(id, authentication.getName());
+    public ResponseEntity<String> resetReviewStatus(@PathVariable Long id, @CurrentUserId Long userId) {
+        flashcardService.resetFlashcardReviewStatus(id, userId);
         return ResponseEntity.ok("Status de revisão resetado!");
     }
 
     @GetMapping("/random/category/{categoryId}")
-    @Operation(summary = "Get random flashcard from specific category")
-    public ResponseEntity<Flashcard> getRandomFlashcardByCategory(@PathVariable Long categoryId, Authentication authentication) {
-        Flashcard flashcard = flashcardService.getRandomFlashcardByCategory(categoryId, authentication.getName());
+    @Operation(summary = "Get random flashcard from specific category, or `count` distinct ones")
+    public ResponseEntity<?> getRandomFlashcardByCategory(@PathVariable Long categoryId,
+                                                          @RequestParam(required = false) Integer count,
+                                                          @CurrentUserId Long userId) {
+        if (count != null) {
+            return ResponseEntity.ok(flashcardService.getRandomFlashcardsByCategory(categoryId, userId, count));
+        }
+        Flashcard flashcard = flashcardService.getRandomFlashcardByCategory(categoryId, userId);
         return ResponseEntity.ok(flashcard);
     }
+
+    /**
+     * Devolve os itens da página e, se houver próxima, o link rel="next" e o cursor em X-Next-Cursor
+     */
+    private static <T> ResponseEntity<List<T>> page(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", page.getNextCursor())
+                .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
@@ -1,15 +1,24 @@
 package com.saorim.flashcard.controller;
 
+import java.net.URI;
+
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.saorim.flashcard.exception.ResourceNotFoundException;
+import com.saorim.flashcard.model.AccountPurgeJob;
 import com.saorim.flashcard.model.User;
+import com.saorim.flashcard.security.CurrentUserId;
+import com.saorim.flashcard.security.JwtTokenProvider;
+import com.saorim.flashcard.service.AccountPurgeService;
 import com.saorim.flashcard.service.UserService;
 import com.saorim.flashcard.service.UserService.UserStats;
 
@@ -23,41 +32,48 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "User", description = "Operações relacionadas a usuários")
 public class UserController {
 
+    // Token assinado do progresso da exclusão, devolvido pelo DELETE e exigido no GET do job
+    public static final String PURGE_TOKEN_HEADER = "X-Purge-Token";
+
     private final UserService userService;
+    private final AccountPurgeService accountPurgeService;
+    private final JwtTokenProvider tokenProvider;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, AccountPurgeService accountPurgeService,
+                          JwtTokenProvider tokenProvider) {
         this.userService = userService;
+        this.accountPurgeService = accountPurgeService;
+        this.tokenProvider = tokenProvider;
     }
 
     @GetMapping("/profile")
     @Operation(summary = "Get current user profile")
-    public ResponseEntity<User> getCurrentUserProfile(Authentication authentication) {
-        User user = userService.getUserByUsername(authentication.getName());
+    public ResponseEntity<User> getCurrentUserProfile(@CurrentUserId Long userId) {
+        User user = userService.getUserById(userId);
         return ResponseEntity.ok(user);
     }
 
     @GetMapping("/stats")
     @Operation(summary = "Get current user statistics")
-    public ResponseEntity<UserStats> getCurrentUserStats(Authentication authentication) {
-        UserStats stats = userService.getUserStats(authentication.getName());
+    public ResponseEntity<UserStats> getCurrentUserStats(@CurrentUserId Long userId) {
+        UserStats stats = userService.getUserStats(userId);
         return ResponseEntity.ok(stats);
     }
 
     @PutMapping("/profile")
     @Operation(summary = "Update current user profile")
     public ResponseEntity<User> updateCurrentUserProfile(@RequestBody User userDetails, 
-                                                        Authentication authentication) {
-        User currentUser = userService.getUserByUsername(authentication.getName());
-        User updatedUser = userService.updateUser(currentUser.getId(), userDetails);
+                                                        @CurrentUserId Long userId) {
+        User updatedUser = userService.updateUser(userId, userDetails);
         return ResponseEntity.ok(updatedUser);
     }
 
     @PutMapping("/password")
     @Operation(summary = "Update current user password")
     public ResponseEntity<String> updateCurrentUserPassword(@RequestBody PasswordUpdateRequest request, 
-                                                           Authentication authentication) {
-        userService.updatePasswordByUsername(
-            authentication.getName(), 
+                                                           @CurrentUserId Long userId) {
+        userService.updatePassword(
+            userId, 
             request.getCurrentPassword(), 
             request.getNewPassword()
         );
@@ -65,10 +81,31 @@ public class UserController {
     }
 
     @DeleteMapping("/profile")
-    @Operation(summary = "Delete current user account")
-    public ResponseEntity<String> deleteCurrentUserAccount(Authentication authentication) {
-        userService.deleteUserByUsername(authentication.getName());
-        return ResponseEntity.ok("Conta deletada com sucesso!");
+    @Operation(summary = "Delete current user account",
+               description = "Desativa a conta na hora e remove os dados em segundo plano; o progresso fica em Location, " +
+                             "consultado com o token de X-Purge-Token")
+    public ResponseEntity<AccountPurgeJob> deleteCurrentUserAccount(@CurrentUserId Long userId) {
+        AccountPurgeJob job = userService.deleteUser(userId);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/users/purge-jobs/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .header(PURGE_TOKEN_HEADER, tokenProvider.generatePurgeStatusToken(job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/purge-jobs/{id}")
+    @Operation(summary = "Get account deletion progress",
+               description = "Não exige login (a conta já está desativada), mas exige em X-Purge-Token o token devolvido pelo DELETE")
+    public ResponseEntity<AccountPurgeJob> getPurgeJob(@PathVariable String id,
+                                                       @RequestHeader(value = PURGE_TOKEN_HEADER, required = false) String token) {
+        // Sem token válido a resposta é a mesma de um job inexistente
+        if (token == null || !tokenProvider.isPurgeStatusToken(token, id)) {
+            throw new ResourceNotFoundException("Exclusão de conta não encontrada: " + id);
+        }
+        return ResponseEntity.ok(accountPurgeService.getJob(id));
     }
 
     // DTO para atualização de senha
@@ -0,0 +1,35 @@
+package com.saorim.flashcard.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Operação em massa sobre os cards escolhidos por ids ou por filtro (um dos dois)
+ */
+@Data
+public class BulkOperationRequest {
+    @NotNull(message = "Operação é obrigatória: MOVE, DELETE ou RESET_REVIEW")
+    private Operation operation;
+
+    private List<Long> ids;
+
+    private Filter filter;
+
+    // Categoria de destino do MOVE; nula tira os cards da categoria
+    private Long targetCategoryId;
+
+    public enum Operation {
+        MOVE, DELETE, RESET_REVIEW
+    }
+
+    @Data
+    public static class Filter {
+        private Long categoryId;
+        // Apenas cards sem categoria
+        private boolean uncategorized;
+        // false: nunca revisados; true: já revisados
+        private Boolean reviewed;
+    }
+}
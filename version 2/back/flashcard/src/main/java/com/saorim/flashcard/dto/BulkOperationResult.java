@@ -0,0 +1,11 @@
+package com.saorim.flashcard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkOperationResult {
+    private BulkOperationRequest.Operation operation;
+    private int affected;
+}
@@ -0,0 +1,15 @@
+package com.saorim.flashcard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Categoria criada pela cópia e quantos cards foram copiados para ela
+ */
+@Data
+@AllArgsConstructor
+public class CategoryCopyResult {
+    private Long categoryId;
+    private String name;
+    private long flashcards;
+}
@@ -0,0 +1,16 @@
+package com.saorim.flashcard.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Uma página de resultados e o cursor opaco da próxima (nulo na última página)
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
@@ -0,0 +1,12 @@
+package com.saorim.flashcard.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class FlashcardIdsRequest {
+    @NotEmpty(message = "Lista de ids é obrigatória")
+    private List<Long> ids;
+}
@@ -0,0 +1,18 @@
+package com.saorim.flashcard.dto;
+
+import java.util.List;
+
+import com.saorim.flashcard.model.Flashcard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Cards encontrados, na ordem dos ids pedidos, e os ids que não existem ou são de outro usuário
+ */
+@Data
+@AllArgsConstructor
+public class FlashcardLookupResult {
+    private List<Flashcard> items;
+    private List<Long> missing;
+}
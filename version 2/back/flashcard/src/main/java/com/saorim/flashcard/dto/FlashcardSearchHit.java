@@ -0,0 +1,21 @@
+package com.saorim.flashcard.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.saorim.flashcard.model.Flashcard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resultado da busca: os campos do card, a nota BM25 e os textos com os termos entre {@code <mark>}
+ */
+@Data
+@AllArgsConstructor
+public class FlashcardSearchHit {
+
+    @JsonUnwrapped
+    private Flashcard flashcard;
+    private double score;
+    private String questionHighlight;
+    private String answerHighlight;
+}
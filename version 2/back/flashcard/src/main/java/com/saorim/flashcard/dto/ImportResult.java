@@ -0,0 +1,26 @@
+package com.saorim.flashcard.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resumo da importação. Só as primeiras falhas são detalhadas em {@code errors}; {@code failed} conta todas.
+ */
+@Data
+public class ImportResult {
+    private long total;
+    private long imported;
+    private long failed;
+    private long categoriesCreated;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -0,0 +1,24 @@
+package com.saorim.flashcard.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Linha de um arquivo de importação; a categoria vem pelo nome e é criada se não existir
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRow {
+    @JsonAlias("pergunta")
+    private String question;
+
+    @JsonAlias("resposta")
+    private String answer;
+
+    @JsonAlias("categoria")
+    private String category;
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 public class JwtResponse {
     private String token;
     private String type = "Bearer";
+    private String refreshToken;
+    private long expiresIn;
     private Long id;
     private String username;
     private String email;
@@ -16,4 +18,10 @@ public class JwtResponse {
         this.username = username;
         this.email = email;
     }
+
+    public JwtResponse(String token, String refreshToken, long expiresIn, Long id, String username, String email) {
+        this(token, id, username, email);
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
 }
@@ -0,0 +1,14 @@
+package com.saorim.flashcard.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class ReviewBatchRequest {
+    @NotEmpty(message = "Lista de revisões é obrigatória")
+    @Valid
+    private List<ReviewItem> reviews;
+}
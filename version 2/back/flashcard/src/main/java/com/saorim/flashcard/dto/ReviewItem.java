@@ -0,0 +1,21 @@
+package com.saorim.flashcard.dto;
+
+import java.time.LocalDateTime;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ReviewItem {
+    @NotNull(message = "Id do flashcard é obrigatório")
+    private Long id;
+    
+    private LocalDateTime reviewedAt;
+    
+    // Nota SM-2 opcional: 0 (errou) a 5 (lembrou fácil)
+    @Min(value = 0, message = "grade deve estar entre 0 e 5")
+    @Max(value = 5, message = "grade deve estar entre 0 e 5")
+    private Integer grade;
+}
@@ -0,0 +1,14 @@
+package com.saorim.flashcard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReviewResult {
+    public static final String UPDATED = "UPDATED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private Long id;
+    private String status;
+}
@@ -0,0 +1,25 @@
+package com.saorim.flashcard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Sugestão do autocompletar: o texto original e se ele é uma pergunta ou o nome de uma categoria
+ */
+@Data
+@AllArgsConstructor
+public class Suggestion {
+    public static final String QUESTION = "QUESTION";
+    public static final String CATEGORY = "CATEGORY";
+
+    private String text;
+    private String type;
+
+    public static Suggestion question(String text) {
+        return new Suggestion(text, QUESTION);
+    }
+
+    public static Suggestion category(String name) {
+        return new Suggestion(name, CATEGORY);
+    }
+}
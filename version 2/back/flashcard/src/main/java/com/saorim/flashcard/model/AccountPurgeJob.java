@@ -0,0 +1,56 @@
+package com.saorim.flashcard.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Exclusão de conta em andamento. Os dados do usuário são removidos em segundo plano, em lotes
+ * com transações curtas; a linha sobrevive ao usuário para que o progresso possa ser consultado.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "account_purge_jobs", indexes = @Index(name = "idx_account_purge_jobs_status", columnList = "status"))
+public class AccountPurgeJob {
+
+    // UUID aleatório; o progresso só é lido com o token assinado devolvido na exclusão
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @JsonIgnore
+    @Column(nullable = false, unique = true)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    private long totalFlashcards;
+    private long deletedFlashcards;
+    private long deletedCategories;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+
+    // Concessão do nó que processa o job; vencida, outro nó (ou o mesmo depois de reiniciar) retoma de onde parou
+    @JsonIgnore
+    private LocalDateTime lockedUntil;
+
+    public enum Status {
+        PENDING, RUNNING, DONE
+    }
+}
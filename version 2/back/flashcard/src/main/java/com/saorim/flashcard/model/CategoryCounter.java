@@ -0,0 +1,30 @@
+package com.saorim.flashcard.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais de flashcards por categoria mantidos incrementalmente
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "category_counters", indexes = @Index(name = "idx_category_counters_user", columnList = "user_id"))
+public class CategoryCounter {
+
+    @Id
+    private Long categoryId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    private long totalFlashcards;
+    private long reviewedFlashcards;
+}
@@ -3,6 +3,7 @@ package com.saorim.flashcard.model;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,9 +11,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,21 +24,40 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "flashcards")
+@Table(name = "flashcards", indexes = @Index(name = "idx_flashcards_user_due", columnList = "user_id, next_due_at"))
 public class Flashcard {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "flashcard_ids")
+    @TableGenerator(name = "flashcard_ids", table = "id_sequences", pkColumnName = "sequence_name",
+        valueColumnName = "next_val", pkColumnValue = "flashcards", allocationSize = 50)
     private Long id;
     
-    @Column(nullable = false)
+    // Tamanho das colunas de texto (VARCHAR(255)); a importação valida contra ele
+    public static final int TEXT_MAX_LENGTH = 255;
+
+    @Column(nullable = false, length = TEXT_MAX_LENGTH)
     private String question;
     
-    @Column(nullable = false)
+    @Column(nullable = false, length = TEXT_MAX_LENGTH)
     private String answer;
     
     private LocalDateTime lastReviewed;
     private Integer reviewCount = 0;
     
+    // Agenda de repetição espaçada (SM-2), mantida pelo servidor
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime nextDueAt;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Double easeFactor = 2.5;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer intervalDays = 0;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer repetitions = 0;
+    
     @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
@@ -0,0 +1,25 @@
+package com.saorim.flashcard.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contador de alterações no texto dos cards do usuário; os índices de busca guardam o valor
+ * com que foram montados e são reconstruídos quando ele não bate mais
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "search_index_versions")
+public class SearchIndexVersion {
+
+    @Id
+    private Long userId;
+    
+    private long contentVersion;
+}
@@ -3,9 +3,13 @@ package com.saorim.flashcard.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.saorim.flashcard.config.SecondLevelCacheConfig;
 
-import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -13,6 +17,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,10 +26,15 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USERS)
 @Table(name = "users")
 public class User {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_ids")
+    @TableGenerator(name = "user_ids", table = "id_sequences", pkColumnName = "sequence_name",
+        valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -38,10 +48,20 @@ public class User {
     private String email;
     
     @JsonIgnore
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
+    @Column(nullable = false)
+    private long tokenVersion;
+    
+    // Conta em exclusão: o login é bloqueado enquanto o AccountPurgeService remove os dados
+    @JsonIgnore
+    @Column(nullable = false)
+    private boolean disabled;
+    
+    // Sem cascata: a exclusão da conta usa DELETE em massa (UserService.deleteUser)
+    @JsonIgnore
+    @OneToMany(mappedBy = "user")
     private List<Category> categories = new ArrayList<>();
     
     @JsonIgnore
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "user")
     private List<Flashcard> flashcards = new ArrayList<>();
 }
\ No newline at end of file
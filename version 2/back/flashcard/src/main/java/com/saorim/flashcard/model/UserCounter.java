@@ -0,0 +1,26 @@
+package com.saorim.flashcard.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais de flashcards do usuário mantidos incrementalmente (fonte das estatísticas).
+ * Ficam fora da tabela users para que as atualizações não concorram com a entidade User.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_counters")
+public class UserCounter {
+
+    @Id
+    private Long userId;
+    
+    private long totalFlashcards;
+    private long reviewedFlashcards;
+}
@@ -0,0 +1,47 @@
+package com.saorim.flashcard.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.saorim.flashcard.model.AccountPurgeJob;
+import com.saorim.flashcard.model.AccountPurgeJob.Status;
+
+@Repository
+public interface AccountPurgeJobRepository extends JpaRepository<AccountPurgeJob, String> {
+
+	/**
+	 * Jobs não concluídos e sem concessão válida, do mais antigo para o mais novo
+	 */
+	@Query("SELECT j.id FROM AccountPurgeJob j WHERE j.status <> :done " +
+	       "AND (j.lockedUntil IS NULL OR j.lockedUntil < :now) ORDER BY j.createdAt")
+	List<String> findRunnableIds(@Param("done") Status done, @Param("now") LocalDateTime now);
+
+	/**
+	 * Toma a concessão do job; devolve 0 se outro nó já a tiver
+	 */
+	@Modifying
+	@Query("UPDATE AccountPurgeJob j SET j.status = :running, j.lockedUntil = :until " +
+	       "WHERE j.id = :id AND j.status <> :done AND (j.lockedUntil IS NULL OR j.lockedUntil < :now)")
+	int claim(@Param("id") String id, @Param("running") Status running, @Param("done") Status done,
+	          @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+	/**
+	 * Soma o progresso de um lote e renova a concessão, na mesma transação da remoção
+	 */
+	@Modifying
+	@Query("UPDATE AccountPurgeJob j SET j.deletedFlashcards = j.deletedFlashcards + :flashcards, " +
+	       "j.deletedCategories = j.deletedCategories + :categories, j.lockedUntil = :until WHERE j.id = :id")
+	int progress(@Param("id") String id, @Param("flashcards") long flashcards,
+	             @Param("categories") long categories, @Param("until") LocalDateTime until);
+
+	@Modifying
+	@Query("UPDATE AccountPurgeJob j SET j.status = :done, j.finishedAt = :finishedAt, j.lockedUntil = NULL WHERE j.id = :id")
+	int finish(@Param("id") String id, @Param("done") Status done, @Param("finishedAt") LocalDateTime finishedAt);
+
+}
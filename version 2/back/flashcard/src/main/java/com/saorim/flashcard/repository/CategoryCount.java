@@ -0,0 +1,7 @@
+package com.saorim.flashcard.repository;
+
+/**
+ * Quantos cards de uma seleção estão na categoria ({@code categoryId} nulo: sem categoria) e quantos deles já foram revisados
+ */
+public record CategoryCount(Long categoryId, long total, long reviewed) {
+}
@@ -0,0 +1,41 @@
+package com.saorim.flashcard.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.saorim.flashcard.model.CategoryCounter;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface CategoryCounterRepository extends JpaRepository<CategoryCounter, Long> {
+
+	/**
+	 * Leitura com lock: enxerga as linhas que outro recount acabou de gravar, mesmo em REPEATABLE READ
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT c FROM CategoryCounter c WHERE c.userId = :userId")
+	List<CategoryCounter> findForUpdateByUserId(@Param("userId") Long userId);
+
+	@Query("SELECT c.categoryId AS categoryId, cat.name AS categoryName, " +
+	       "c.totalFlashcards AS total, c.reviewedFlashcards AS reviewed " +
+	       "FROM CategoryCounter c JOIN Category cat ON cat.id = c.categoryId " +
+	       "WHERE c.userId = :userId ORDER BY cat.name")
+	List<CategoryStatsRow> findStatsByUserId(@Param("userId") Long userId);
+
+	@Modifying
+	@Query("UPDATE CategoryCounter c SET c.totalFlashcards = c.totalFlashcards + :total, " +
+	       "c.reviewedFlashcards = c.reviewedFlashcards + :reviewed WHERE c.categoryId = :categoryId")
+	int adjust(@Param("categoryId") Long categoryId, @Param("total") long total, @Param("reviewed") long reviewed);
+
+	@Modifying
+	@Query("DELETE FROM CategoryCounter c WHERE c.userId = :userId")
+	int deleteAllByUserId(@Param("userId") Long userId);
+
+}
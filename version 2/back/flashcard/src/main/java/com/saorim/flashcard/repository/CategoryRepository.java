@@ -1,19 +1,59 @@
 package com.saorim.flashcard.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.saorim.flashcard.config.SecondLevelCacheConfig;
 import com.saorim.flashcard.model.Category;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+	/**
+	 * Consultas no cache de segundo nível: guardam só os ids, e as categorias vêm da região de entidades.
+	 * Qualquer escrita do Hibernate na tabela categories invalida os resultados.
+	 */
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+		@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.CATEGORY_QUERIES)
+	})
 	List<Category> findByUserId(Long userId);
+
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+		@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.CATEGORY_QUERIES)
+	})
     Optional<Category> findByIdAndUserId(Long id, Long userId);
     boolean existsByNameAndUserId(String name, Long userId);
-    void deleteByUserId(Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Category c WHERE c.id = :id AND c.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Category c WHERE c.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT c.id FROM Category c WHERE c.user.id = :userId")
+    List<Long> findAnyIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Category c WHERE c.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.name FROM Category c WHERE c.user.id = :userId")
+    List<String> findNamesByUserId(@Param("userId") Long userId);
 
 }
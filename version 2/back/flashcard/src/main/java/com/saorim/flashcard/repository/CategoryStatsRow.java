@@ -0,0 +1,17 @@
+package com.saorim.flashcard.repository;
+
+/**
+ * Linha agregada de estatísticas: uma por categoria do usuário e uma para os cards sem categoria
+ * ({@code categoryId} nulo)
+ */
+public interface CategoryStatsRow {
+
+	Long getCategoryId();
+
+	String getCategoryName();
+
+	long getTotal();
+
+	long getReviewed();
+
+}
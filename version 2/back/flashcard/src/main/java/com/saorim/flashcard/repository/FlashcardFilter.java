@@ -0,0 +1,10 @@
+package com.saorim.flashcard.repository;
+
+import java.util.Collection;
+
+/**
+ * Seleção de cards de um usuário para operações em massa; os critérios informados são combinados com AND.
+ * {@code reviewed} falso seleciona os nunca revisados e nulo não filtra.
+ */
+public record FlashcardFilter(Collection<Long> ids, Long categoryId, boolean uncategorized, Boolean reviewed) {
+}
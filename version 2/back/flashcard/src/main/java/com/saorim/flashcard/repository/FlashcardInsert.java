@@ -0,0 +1,7 @@
+package com.saorim.flashcard.repository;
+
+/**
+ * Card novo para inserção em lote (importação); a agenda começa com os valores padrão do SM-2
+ */
+public record FlashcardInsert(String question, String answer, Long categoryId) {
+}
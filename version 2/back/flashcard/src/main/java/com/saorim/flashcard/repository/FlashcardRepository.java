@@ -1,34 +1,112 @@
 package com.saorim.flashcard.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.saorim.flashcard.model.Flashcard;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface FlashcardRepository extends JpaRepository<Flashcard, Long> {
+public interface FlashcardRepository extends JpaRepository<Flashcard, Long>, FlashcardRepositoryCustom {
+
+	// Próximo intervalo do SM-2 calculado com os valores atuais do card
+	String SM2_NEXT_INTERVAL = "CASE WHEN :passed = 0 OR repetitions = 0 THEN 1 WHEN repetitions = 1 THEN 6 " +
+	                           "ELSE ROUND(interval_days * ease_factor) END";
+
+	// Revisão com reagendamento SM-2, usada aqui e no batch JDBC (applyReviews). lastReviewed nunca volta
+	// no tempo: revisões offline podem chegar fora de ordem. A agenda vem antes de last_reviewed porque
+	// o MySQL aplica as atribuições em ordem
+	String SM2_REVIEW_SET = "next_due_at = TIMESTAMPADD(DAY, " + SM2_NEXT_INTERVAL + ", " +
+	                        "GREATEST(COALESCE(last_reviewed, :reviewedAt), :reviewedAt)), " +
+	                        "interval_days = " + SM2_NEXT_INTERVAL + ", " +
+	                        "ease_factor = GREATEST(1.3, ROUND(ease_factor + :easeDelta, 2)), " +
+	                        "repetitions = CASE WHEN :passed = 1 THEN repetitions + 1 ELSE 0 END, " +
+	                        "last_reviewed = GREATEST(COALESCE(last_reviewed, :reviewedAt), :reviewedAt), " +
+	                        "review_count = COALESCE(review_count, 0) + :count";
 
 	List<Flashcard> findByUserId(Long userId);
 
 	Optional<Flashcard> findByIdAndUserId(Long id, Long userId);
 
+	@Query("SELECT f FROM Flashcard f WHERE f.id IN :ids AND f.user.id = :userId")
+	List<Flashcard> findAllByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+	boolean existsByIdAndUserId(Long id, Long userId);
+
 	List<Flashcard> findByCategoryIdAndUserId(Long categoryId, Long userId);
 
-	@Query("SELECT f FROM Flashcard f WHERE f.user.id = :userId ORDER BY f.lastReviewed ASC NULLS FIRST")
-	List<Flashcard> findDueForReviewByUserId(Long userId);
+	@Query("SELECT f FROM Flashcard f WHERE f.user.id = :userId AND f.id > :afterId ORDER BY f.id")
+	List<Flashcard> findPageByUserId(@Param("userId") Long userId, @Param("afterId") long afterId, Pageable pageable);
+
+	@Query("SELECT f FROM Flashcard f WHERE f.user.id = :userId AND f.category.id = :categoryId " +
+	       "AND f.id > :afterId ORDER BY f.id")
+	List<Flashcard> findPageByCategoryIdAndUserId(@Param("categoryId") Long categoryId, @Param("userId") Long userId,
+	                                              @Param("afterId") long afterId, Pageable pageable);
+
+	long countByUserId(Long userId);
+
+	long countByCategoryIdAndUserId(Long categoryId, Long userId);
+
+	/**
+	 * Ids nas posições informadas (a partir de 1) da lista de cards do usuário ordenada por id,
+	 * numa única passada pelo índice
+	 */
+	@Query(value = "SELECT id FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS rn FROM flashcards " +
+	               "WHERE user_id = :userId) ranked WHERE rn IN :ranks", nativeQuery = true)
+	List<Long> findIdsAtRanksByUserId(@Param("userId") Long userId, @Param("ranks") Collection<Long> ranks);
+
+	@Query(value = "SELECT id FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS rn FROM flashcards " +
+	               "WHERE user_id = :userId AND category_id = :categoryId) ranked WHERE rn IN :ranks", nativeQuery = true)
+	List<Long> findIdsAtRanksByCategoryIdAndUserId(@Param("categoryId") Long categoryId, @Param("userId") Long userId,
+	                                               @Param("ranks") Collection<Long> ranks);
+
+	@Query("SELECT f FROM Flashcard f WHERE f.user.id = :userId AND f.nextDueAt <= :now ORDER BY f.nextDueAt, f.id")
+	List<Flashcard> findDueForReviewByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
 
-	@Query("SELECT f FROM Flashcard f WHERE f.user.id = :userId AND f.category.id = :categoryId ORDER BY f.lastReviewed ASC NULLS FIRST")
-	List<Flashcard> findDueForReviewByCategoryId(Long userId, Long categoryId);
+	@Query("SELECT f FROM Flashcard f WHERE f.user.id = :userId AND f.nextDueAt <= :now " +
+	       "AND (f.nextDueAt > :afterDue OR (f.nextDueAt = :afterDue AND f.id > :afterId)) ORDER BY f.nextDueAt, f.id")
+	List<Flashcard> findDueForReviewByUserIdAfter(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+	                                              @Param("afterDue") LocalDateTime afterDue, @Param("afterId") long afterId,
+	                                              Pageable pageable);
 
-	@Query("SELECT f FROM Flashcard f WHERE f.user.id = :userId AND " +
-		       "(LOWER(f.question) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-		       "LOWER(f.answer) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-	List<Flashcard> searchByQuestionOrAnswer(@Param("userId") Long userId, @Param("searchTerm") String searchTerm);
+	@Query("SELECT f FROM Flashcard f WHERE f.user.id = :userId AND f.category.id = :categoryId " +
+	       "AND f.nextDueAt <= :now ORDER BY f.nextDueAt, f.id")
+	List<Flashcard> findDueForReviewByCategoryId(@Param("userId") Long userId, @Param("categoryId") Long categoryId,
+	                                             @Param("now") LocalDateTime now, Pageable pageable);
+
+	@Query("SELECT f FROM Flashcard f WHERE f.user.id = :userId AND f.category.id = :categoryId AND f.nextDueAt <= :now " +
+	       "AND (f.nextDueAt > :afterDue OR (f.nextDueAt = :afterDue AND f.id > :afterId)) ORDER BY f.nextDueAt, f.id")
+	List<Flashcard> findDueForReviewByCategoryIdAfter(@Param("userId") Long userId, @Param("categoryId") Long categoryId,
+	                                                  @Param("now") LocalDateTime now, @Param("afterDue") LocalDateTime afterDue,
+	                                                  @Param("afterId") long afterId, Pageable pageable);
+
+	long countByUserIdAndNextDueAtLessThanEqual(Long userId, LocalDateTime now);
+
+	/**
+	 * Id, pergunta e resposta dos cards do usuário, para reconstruir o índice de busca
+	 */
+	@Query("SELECT f.id, f.question, f.answer FROM Flashcard f WHERE f.user.id = :userId")
+	Stream<Object[]> streamTextByUserId(@Param("userId") Long userId);
+
+	@Query("SELECT f.question FROM Flashcard f WHERE f.user.id = :userId")
+	Stream<String> streamQuestionsByUserId(@Param("userId") Long userId);
+
+	@Query("SELECT MAX(f.id) FROM Flashcard f WHERE f.user.id = :userId")
+	Long findMaxIdByUserId(@Param("userId") Long userId);
 
 	@Query("SELECT COUNT(f) FROM Flashcard f WHERE f.user.id = :userId AND f.lastReviewed IS NOT NULL")
 	long countReviewedFlashcards(@Param("userId") Long userId);
@@ -36,6 +114,58 @@ public interface FlashcardRepository extends JpaRepository<Flashcard, Long> {
 	@Query("SELECT COUNT(f) FROM Flashcard f WHERE f.user.id = :userId AND f.lastReviewed IS NULL")
 	long countUnreviewedFlashcards(@Param("userId") Long userId);
 
-	void deleteByUserId(Long userId);
+	/**
+	 * Totais por categoria (inclusive as vazias) e dos cards sem categoria, numa única consulta agregada
+	 */
+	@Query(value = "SELECT c.id AS categoryId, c.name AS categoryName, COUNT(f.id) AS total, COUNT(f.last_reviewed) AS reviewed " +
+	               "FROM categories c LEFT JOIN flashcards f ON f.category_id = c.id AND f.user_id = c.user_id " +
+	               "WHERE c.user_id = :userId GROUP BY c.id, c.name " +
+	               "UNION ALL " +
+	               "SELECT NULL, NULL, COUNT(f.id), COUNT(f.last_reviewed) " +
+	               "FROM flashcards f WHERE f.user_id = :userId AND f.category_id IS NULL",
+	       nativeQuery = true)
+	List<CategoryStatsRow> aggregateStatsByUserId(@Param("userId") Long userId);
+
+	/**
+	 * Remove todos os cards do usuário num único DELETE; o contexto de persistência é sincronizado e limpo
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM Flashcard f WHERE f.user.id = :userId")
+	int deleteAllByUserId(@Param("userId") Long userId);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM Flashcard f WHERE f.category.id = :categoryId AND f.user.id = :userId")
+	int deleteAllByCategoryId(@Param("categoryId") Long categoryId, @Param("userId") Long userId);
+
+	/**
+	 * Um lote qualquer de ids do usuário, sem ordenação (exclusão da conta em lotes)
+	 */
+	@Query("SELECT f.id FROM Flashcard f WHERE f.user.id = :userId")
+	List<Long> findAnyIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+	@Modifying
+	@Query("DELETE FROM Flashcard f WHERE f.id IN :ids")
+	int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Trava o card do usuário para a revisão e devolve [category_id, last_reviewed]; vazio se o card não existir
+	 */
+	@Query(value = "SELECT category_id, last_reviewed FROM flashcards WHERE id = :id AND user_id = :userId FOR UPDATE",
+	       nativeQuery = true)
+	List<Object[]> lockForReview(@Param("id") Long id, @Param("userId") Long userId);
+
+	// Sem as tabelas declaradas, o Hibernate esvazia todo o cache de segundo nível a cada UPDATE nativo
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "flashcards"))
+	@Query(value = "UPDATE flashcards SET " + SM2_REVIEW_SET + " WHERE id = :id AND user_id = :userId", nativeQuery = true)
+	int markReviewed(@Param("id") Long id, @Param("userId") Long userId, @Param("reviewedAt") LocalDateTime reviewedAt,
+	                 @Param("count") int count, @Param("passed") int passed, @Param("easeDelta") double easeDelta);
+
+	/**
+	 * Cards ainda não revisados entre os ids informados, agrupados por usuário e categoria
+	 */
+	@Query("SELECT f.user.id, f.category.id, COUNT(f) FROM Flashcard f " +
+	       "WHERE f.id IN :ids AND f.lastReviewed IS NULL GROUP BY f.user.id, f.category.id")
+	List<Object[]> countUnreviewedByIds(@Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,56 @@
+package com.saorim.flashcard.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.saorim.flashcard.model.Flashcard;
+
+/**
+ * Operações em lote do {@link FlashcardRepository} implementadas com JDBC
+ */
+public interface FlashcardRepositoryCustom {
+
+	/**
+	 * Aplica e agenda (SM-2) as revisões num único batch JDBC e devolve a quantidade de linhas afetadas por item
+	 */
+	int[] applyReviews(List<ReviewUpdate> updates);
+
+	/**
+	 * Insere os cards do usuário num único batch JDBC, já vencidos em {@code dueAt}, com ids reservados no gerador
+	 */
+	void insertFlashcards(Long userId, List<FlashcardInsert> rows, LocalDateTime dueAt);
+
+	/**
+	 * Copia os cards de uma categoria para outra num único INSERT ... SELECT, sem carregar entidades;
+	 * as cópias começam sem revisões e vencidas em {@code dueAt}. Devolve quantos cards foram copiados.
+	 */
+	int copyCategoryFlashcards(Long userId, Long sourceCategoryId, Long targetCategoryId, LocalDateTime dueAt);
+
+	/**
+	 * Move os cards selecionados para a categoria (nula tira a categoria) num único UPDATE; devolve as linhas afetadas
+	 */
+	int moveFlashcards(Long userId, FlashcardFilter filter, Long categoryId);
+
+	/**
+	 * Remove os cards selecionados num único DELETE; devolve as linhas afetadas
+	 */
+	int deleteFlashcards(Long userId, FlashcardFilter filter);
+
+	/**
+	 * Zera revisões e agenda SM-2 dos cards selecionados num único UPDATE, vencidos em {@code dueAt}
+	 */
+	int resetReviews(Long userId, FlashcardFilter filter, LocalDateTime dueAt);
+
+	/**
+	 * Cards selecionados pelo filtro agrupados por categoria, para ajustar os contadores de uma operação em lote
+	 */
+	List<CategoryCount> countByCategory(Long userId, FlashcardFilter filter);
+
+	/**
+	 * Percorre todos os cards do usuário em ordem de id sem materializar a lista (exportação), pelo pool
+	 * de exportação; os cards vêm sem categoria e usuário. O chamador deve fechar o Stream.
+	 */
+	Stream<Flashcard> streamByUserId(Long userId);
+
+}
@@ -0,0 +1,204 @@
+package com.saorim.flashcard.repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.saorim.flashcard.config.ExportDataSource;
+import com.saorim.flashcard.model.Flashcard;
+
+public class FlashcardRepositoryImpl implements FlashcardRepositoryCustom {
+
+	private static final String APPLY_REVIEW_SQL =
+		"UPDATE flashcards SET " + FlashcardRepository.SM2_REVIEW_SET + " WHERE id = :id AND user_id = :userId";
+
+	private static final String INSERT_SQL =
+		"INSERT INTO flashcards (id, question, answer, category_id, user_id, review_count, next_due_at, " +
+		"ease_factor, interval_days, repetitions) VALUES (?, ?, ?, ?, ?, 0, ?, 2.5, 0, 0)";
+
+	// Os ids do bloco reservado seguem a ordem dos originais; o LIMIT impede passar do bloco
+	// se cards forem criados na categoria entre a contagem e a cópia
+	private static final String COPY_CATEGORY_SQL =
+		"INSERT INTO flashcards (id, question, answer, category_id, user_id, review_count, next_due_at, " +
+		"ease_factor, interval_days, repetitions) " +
+		"SELECT ? + ROW_NUMBER() OVER (ORDER BY id) - 1, question, answer, ?, user_id, 0, ?, 2.5, 0, 0 " +
+		"FROM flashcards WHERE category_id = ? AND user_id = ? ORDER BY id LIMIT ?";
+
+	private static final String RESET_REVIEWS_SET =
+		"last_reviewed = NULL, review_count = 0, next_due_at = ?, ease_factor = 2.5, interval_days = 0, repetitions = 0";
+
+	private static final String COUNT_CATEGORY_SQL =
+		"SELECT COUNT(*) FROM flashcards WHERE category_id = ? AND user_id = ?";
+
+	// Mesma linha do @TableGenerator de Flashcard; next_val é o último id já entregue
+	private static final String RESERVE_IDS_SQL =
+		"UPDATE id_sequences SET next_val = next_val + ? WHERE sequence_name = 'flashcards'";
+
+	private static final String LAST_ID_SQL =
+		"SELECT next_val FROM id_sequences WHERE sequence_name = 'flashcards'";
+
+	private static final String EXPORT_SQL =
+		"SELECT id, question, answer, last_reviewed, review_count, next_due_at, ease_factor, interval_days, repetitions " +
+		"FROM flashcards WHERE user_id = ? ORDER BY id";
+
+	private static final RowMapper<Flashcard> EXPORT_ROW_MAPPER = (rs, rowNum) -> {
+		Flashcard flashcard = new Flashcard();
+		flashcard.setId(rs.getLong("id"));
+		flashcard.setQuestion(rs.getString("question"));
+		flashcard.setAnswer(rs.getString("answer"));
+		flashcard.setLastReviewed(rs.getObject("last_reviewed", LocalDateTime.class));
+		flashcard.setReviewCount(rs.getObject("review_count", Integer.class));
+		flashcard.setNextDueAt(rs.getObject("next_due_at", LocalDateTime.class));
+		flashcard.setEaseFactor(rs.getObject("ease_factor", Double.class));
+		flashcard.setIntervalDays(rs.getObject("interval_days", Integer.class));
+		flashcard.setRepetitions(rs.getObject("repetitions", Integer.class));
+		return flashcard;
+	};
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedJdbcTemplate;
+	private final JdbcTemplate exportJdbcTemplate;
+	private final TransactionTemplate idTransaction;
+
+	public FlashcardRepositoryImpl(JdbcTemplate jdbcTemplate, ExportDataSource exportDataSource,
+	                               PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.exportJdbcTemplate = exportDataSource.getJdbcTemplate();
+		// A reserva de ids é confirmada na hora, como no gerador do Hibernate, para não segurar o lock da sequência
+		this.idTransaction = new TransactionTemplate(transactionManager);
+		this.idTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	@Override
+	public int[] applyReviews(List<ReviewUpdate> updates) {
+		if (updates.isEmpty()) {
+			return new int[0];
+		}
+		SqlParameterSource[] params = updates.stream()
+			.map(update -> new MapSqlParameterSource()
+				.addValue("id", update.flashcardId())
+				.addValue("userId", update.userId())
+				.addValue("reviewedAt", Timestamp.valueOf(update.reviewedAt()))
+				.addValue("count", update.count())
+				.addValue("passed", update.passed() ? 1 : 0)
+				.addValue("easeDelta", update.easeDelta()))
+			.toArray(SqlParameterSource[]::new);
+		return namedJdbcTemplate.batchUpdate(APPLY_REVIEW_SQL, params);
+	}
+
+	@Override
+	public void insertFlashcards(Long userId, List<FlashcardInsert> rows, LocalDateTime dueAt) {
+		if (rows.isEmpty()) {
+			return;
+		}
+		Timestamp due = Timestamp.valueOf(dueAt);
+		long[] nextId = { reserveIds(rows.size()) };
+		jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+			ps.setLong(1, nextId[0]++);
+			ps.setString(2, row.question());
+			ps.setString(3, row.answer());
+			ps.setObject(4, row.categoryId(), Types.BIGINT);
+			ps.setLong(5, userId);
+			ps.setTimestamp(6, due);
+		});
+	}
+
+	@Override
+	public int copyCategoryFlashcards(Long userId, Long sourceCategoryId, Long targetCategoryId, LocalDateTime dueAt) {
+		int count = jdbcTemplate.queryForObject(COUNT_CATEGORY_SQL, Integer.class, sourceCategoryId, userId);
+		if (count == 0) {
+			return 0;
+		}
+		long firstId = reserveIds(count);
+		return jdbcTemplate.update(COPY_CATEGORY_SQL, firstId, targetCategoryId, Timestamp.valueOf(dueAt),
+			sourceCategoryId, userId, count);
+	}
+
+	@Override
+	public int moveFlashcards(Long userId, FlashcardFilter filter, Long categoryId) {
+		List<Object> args = new ArrayList<>();
+		args.add(new SqlParameterValue(Types.BIGINT, categoryId));
+		String where = where(userId, filter, args);
+		return jdbcTemplate.update("UPDATE flashcards SET category_id = ? WHERE " + where, args.toArray());
+	}
+
+	@Override
+	public int deleteFlashcards(Long userId, FlashcardFilter filter) {
+		List<Object> args = new ArrayList<>();
+		String where = where(userId, filter, args);
+		return jdbcTemplate.update("DELETE FROM flashcards WHERE " + where, args.toArray());
+	}
+
+	@Override
+	public int resetReviews(Long userId, FlashcardFilter filter, LocalDateTime dueAt) {
+		List<Object> args = new ArrayList<>();
+		args.add(Timestamp.valueOf(dueAt));
+		String where = where(userId, filter, args);
+		return jdbcTemplate.update("UPDATE flashcards SET " + RESET_REVIEWS_SET + " WHERE " + where, args.toArray());
+	}
+
+	@Override
+	public Stream<Flashcard> streamByUserId(Long userId) {
+		return exportJdbcTemplate.queryForStream(EXPORT_SQL, EXPORT_ROW_MAPPER, userId);
+	}
+
+	@Override
+	public List<CategoryCount> countByCategory(Long userId, FlashcardFilter filter) {
+		List<Object> args = new ArrayList<>();
+		String where = where(userId, filter, args);
+		return jdbcTemplate.query("SELECT category_id, COUNT(*), " +
+			"COALESCE(SUM(CASE WHEN last_reviewed IS NOT NULL THEN 1 ELSE 0 END), 0) " +
+			"FROM flashcards WHERE " + where + " GROUP BY category_id",
+			(rs, rowNum) -> new CategoryCount(rs.getObject(1, Long.class), rs.getLong(2), rs.getLong(3)),
+			args.toArray());
+	}
+
+	/**
+	 * Monta o WHERE do filtro, sempre restrito ao usuário, e acrescenta os parâmetros em {@code args}
+	 */
+	private static String where(Long userId, FlashcardFilter filter, List<Object> args) {
+		StringBuilder where = new StringBuilder("user_id = ?");
+		args.add(userId);
+		if (filter.ids() != null) {
+			where.append(" AND id IN (").append(String.join(", ", Collections.nCopies(filter.ids().size(), "?"))).append(')');
+			args.addAll(filter.ids());
+		}
+		if (filter.categoryId() != null) {
+			where.append(" AND category_id = ?");
+			args.add(filter.categoryId());
+		}
+		if (filter.uncategorized()) {
+			where.append(" AND category_id IS NULL");
+		}
+		if (filter.reviewed() != null) {
+			where.append(filter.reviewed() ? " AND last_reviewed IS NOT NULL" : " AND last_reviewed IS NULL");
+		}
+		return where.toString();
+	}
+
+	/**
+	 * Reserva {@code count} ids consecutivos no gerador de flashcards e devolve o primeiro
+	 */
+	private long reserveIds(int count) {
+		return idTransaction.execute(status -> {
+			jdbcTemplate.update(RESERVE_IDS_SQL, count);
+			return jdbcTemplate.queryForObject(LAST_ID_SQL, Long.class) - count + 1;
+		});
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.saorim.flashcard.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.saorim.flashcard.model.RefreshToken;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+	Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+	/**
+	 * Marca o token como usado só se ainda não estiver; devolve 0 se outra requisição chegou antes
+	 */
+	@Modifying
+	@Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.tokenHash = :tokenHash AND r.revoked = false")
+	int claim(String tokenHash);
+
+	@Modifying
+	@Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.user.id = :userId AND r.revoked = false")
+	int revokeAllByUserId(Long userId);
+
+	@Modifying
+	@Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
+	int deleteAllByUserId(Long userId);
+
+}
@@ -0,0 +1,32 @@
+package com.saorim.flashcard.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Revisão a aplicar em lote: soma {@code count} revisões ao card, avança lastReviewed até {@code reviewedAt}
+ * e reagenda o card uma vez pelo SM-2 com a nota {@code grade} (0 a 5)
+ */
+public record ReviewUpdate(Long flashcardId, Long userId, LocalDateTime reviewedAt, int count, int grade) {
+
+    /** Nota usada quando a revisão não informa uma (no SM-2, 4 mantém o fator de facilidade) */
+    public static final int DEFAULT_GRADE = 4;
+
+    public ReviewUpdate(Long flashcardId, Long userId, LocalDateTime reviewedAt, int count) {
+        this(flashcardId, userId, reviewedAt, count, DEFAULT_GRADE);
+    }
+
+    /**
+     * Notas abaixo de 3 reiniciam a sequência de repetições
+     */
+    public boolean passed() {
+        return grade >= 3;
+    }
+
+    /**
+     * Variação do fator de facilidade do SM-2: EF' = EF + (0.1 - (5 - q) * (0.08 + (5 - q) * 0.02))
+     */
+    public double easeDelta() {
+        int miss = 5 - grade;
+        return 0.1 - miss * (0.08 + miss * 0.02);
+    }
+}
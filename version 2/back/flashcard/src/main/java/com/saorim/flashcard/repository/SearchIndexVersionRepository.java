@@ -0,0 +1,39 @@
+package com.saorim.flashcard.repository;
+
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.saorim.flashcard.model.SearchIndexVersion;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface SearchIndexVersionRepository extends JpaRepository<SearchIndexVersion, Long> {
+
+	/**
+	 * Incrementa a versão do usuário, criando a linha na primeira alteração
+	 */
+	@Modifying
+	@Transactional
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "search_index_versions"))
+	@Query(value = "INSERT INTO search_index_versions (user_id, content_version) VALUES (:userId, 1) " +
+	               "ON DUPLICATE KEY UPDATE content_version = content_version + 1", nativeQuery = true)
+	int increment(@Param("userId") Long userId);
+
+	@Query("SELECT v.contentVersion FROM SearchIndexVersion v WHERE v.userId = :userId")
+	Optional<Long> findContentVersion(@Param("userId") Long userId);
+
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM SearchIndexVersion v WHERE v.userId = :userId")
+	int deleteByUserId(@Param("userId") Long userId);
+
+}
@@ -0,0 +1,41 @@
+package com.saorim.flashcard.repository;
+
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.saorim.flashcard.model.UserCounter;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface UserCounterRepository extends JpaRepository<UserCounter, Long> {
+
+	/**
+	 * Cria a linha zerada se ainda não existir; com a linha garantida, o findForUpdate sempre trava
+	 * algo e dois recounts do mesmo usuário não tentam inseri-la ao mesmo tempo
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_counters"))
+	@Query(value = "INSERT INTO user_counters (user_id, total_flashcards, reviewed_flashcards) VALUES (:userId, 0, 0) " +
+	               "ON DUPLICATE KEY UPDATE user_id = user_id", nativeQuery = true)
+	int createIfMissing(@Param("userId") Long userId);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT c FROM UserCounter c WHERE c.userId = :userId")
+	Optional<UserCounter> findForUpdate(@Param("userId") Long userId);
+
+	@Modifying
+	@Query("UPDATE UserCounter c SET c.totalFlashcards = c.totalFlashcards + :total, " +
+	       "c.reviewedFlashcards = c.reviewedFlashcards + :reviewed WHERE c.userId = :userId")
+	int adjust(@Param("userId") Long userId, @Param("total") long total, @Param("reviewed") long reviewed);
+
+}
@@ -1,9 +1,14 @@
 package com.saorim.flashcard.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.saorim.flashcard.model.User;
 
@@ -11,7 +16,25 @@ import com.saorim.flashcard.model.User;
 public interface UserRepository extends JpaRepository<User, Long> {
 
 	Optional<User> findByUsername (String username);
+
+	@Query("SELECT u.id FROM User u WHERE u.username = :username")
+	Optional<Long> findIdByUsername(String username);
 	Optional<User> findByEmail (String email);
 	Boolean existsByUsername (String username);
 	Boolean existsByEmail (String email);
+
+	@Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+	List<Long> findIdsAfter(Long afterId, Pageable pageable);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM User u WHERE u.id = :id")
+	int deleteUserById(Long id);
+
+	@Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+	List<Object[]> findBumpedTokenVersions();
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+	int updatePasswordHash(String username, String password);
 }
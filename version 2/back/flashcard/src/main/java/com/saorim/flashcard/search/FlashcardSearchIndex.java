@@ -0,0 +1,245 @@
+package com.saorim.flashcard.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.saorim.flashcard.model.Flashcard;
+import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.repository.SearchIndexVersionRepository;
+import com.saorim.flashcard.transaction.AfterCommit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Índices de busca por usuário, mantidos em memória e gravados em app.search.index-dir.
+ * Só os usuários que buscaram recentemente ficam em memória; os demais são lidos do disco
+ * (ou reconstruídos a partir do banco) na próxima busca.
+ * <p>
+ * Memória e arquivos são locais a cada nó. Depois do commit de cada alteração de cards, a
+ * versão do usuário no banco (search_index_versions) é incrementada numa transação curta, fora
+ * da transação de escrita; o índice guarda a versão que contém e é reconstruído quando ela fica
+ * para trás, seja por uma edição feita em outro nó, seja por um arquivo que não recebeu as
+ * últimas alterações (nó derrubado antes do flush). Um nó que cai entre o commit e o incremento
+ * deixa a edição fora dos arquivos até a próxima alteração do usuário.
+ */
+@Component
+public class FlashcardSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashcardSearchIndex.class);
+
+    private final FlashcardRepository flashcardRepository;
+    private final SearchIndexVersionRepository versionRepository;
+    private final TransactionTemplate versionTransaction;
+    private final Path indexDir;
+    private final Cache<Long, UserIndex> indexes;
+
+    public FlashcardSearchIndex(FlashcardRepository flashcardRepository,
+                                SearchIndexVersionRepository versionRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.search.index-dir}") Path indexDir,
+                                @Value("${app.search.max-users-in-memory:1000}") long maxUsers) {
+        this.flashcardRepository = flashcardRepository;
+        this.versionRepository = versionRepository;
+        // Depois do commit os recursos da transação ainda estão associados à thread; sem REQUIRES_NEW o incremento não seria confirmado
+        this.versionTransaction = new TransactionTemplate(transactionManager);
+        this.versionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.indexDir = indexDir;
+        try {
+            Files.createDirectories(indexDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o diretório do índice de busca", e);
+        }
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .evictionListener((Long userId, UserIndex index, RemovalCause cause) -> {
+                    if (userId != null && index != null && index.isDirty()) {
+                        save(userId, index);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "searchIndex");
+    }
+
+    /**
+     * Busca ranqueada (BM25) nos cards do usuário; precisa de uma transação se o índice tiver de ser reconstruído
+     */
+    public List<SearchMatch> search(Long userId, String query, int offset, int limit) {
+        Set<String> terms = TextAnalyzer.terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        long version = versionRepository.findContentVersion(userId).orElse(0L);
+        UserIndex index = indexes.get(userId, id -> load(id, version));
+        if (index.contentVersion() < version) {
+            index = load(userId, version);
+            indexes.put(userId, index);
+        }
+        return index.search(terms, offset, limit);
+    }
+
+    /**
+     * Indexa (ou reindexa) o card depois do commit da transação corrente
+     */
+    public void put(Flashcard flashcard) {
+        Long userId = flashcard.getUser().getId();
+        long id = flashcard.getId();
+        String question = flashcard.getQuestion();
+        String answer = flashcard.getAnswer();
+        AfterCommit.run(() -> {
+            long version = nextVersion(userId);
+            apply(userId, index -> index.put(version, id, question, answer));
+        });
+    }
+
+    public void remove(Long userId, Long flashcardId) {
+        AfterCommit.run(() -> {
+            long version = nextVersion(userId);
+            apply(userId, index -> index.remove(version, flashcardId));
+        });
+    }
+
+    /**
+     * Descarta o índice do usuário (remoções em massa); ele é reconstruído na próxima busca
+     */
+    public void invalidate(Long userId) {
+        AfterCommit.run(() -> {
+            nextVersion(userId);
+            drop(userId);
+        });
+    }
+
+    /**
+     * Remove a versão e o índice de uma conta excluída
+     */
+    public void userDeleted(Long userId) {
+        versionRepository.deleteByUserId(userId);
+        AfterCommit.run(() -> drop(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.flush-interval:5000}")
+    public void flush() {
+        indexes.asMap().forEach((userId, index) -> {
+            if (index.isDirty()) {
+                save(userId, index);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private long nextVersion(Long userId) {
+        return versionTransaction.execute(status -> {
+            versionRepository.increment(userId);
+            return versionRepository.findContentVersion(userId).orElseThrow();
+        });
+    }
+
+    /**
+     * Aplica a alteração ao índice em memória; se ele não estiver carregado ou tiver perdido
+     * alguma alteração, o índice é descartado e reconstruído na próxima busca
+     */
+    private void apply(Long userId, Predicate<UserIndex> change) {
+        UserIndex index = indexes.getIfPresent(userId);
+        if (index == null || !change.test(index)) {
+            drop(userId);
+        }
+    }
+
+    private void drop(Long userId) {
+        indexes.invalidate(userId);
+        discard(userId);
+    }
+
+    private UserIndex load(Long userId, long version) {
+        long count = flashcardRepository.countByUserId(userId);
+        Long maxId = flashcardRepository.findMaxIdByUserId(userId);
+        UserIndex index = read(userId);
+        if (index != null && index.contentVersion() == version && index.size() == count
+                && index.maxId() == (maxId != null ? maxId : 0)) {
+            return index;
+        }
+
+        index = new UserIndex(version);
+        try (Stream<Object[]> rows = flashcardRepository.streamTextByUserId(userId)) {
+            UserIndex target = index;
+            rows.forEach(row -> target.add((Long) row[0], (String) row[1], (String) row[2]));
+        }
+        index.markDirty();
+        log.debug("Índice de busca do usuário {} reconstruído com {} cards", userId, index.size());
+        return index;
+    }
+
+    private UserIndex read(Long userId) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file(userId))))) {
+            return UserIndex.readFrom(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Índice de busca do usuário {} ilegível, será reconstruído", userId, e);
+            return null;
+        }
+    }
+
+    private void save(Long userId, UserIndex index) {
+        Path target = file(userId);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                index.writeTo(out);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            index.markDirty();
+            log.warn("Falha ao gravar o índice de busca do usuário {}", userId, e);
+        }
+    }
+
+    private void discard(Long userId) {
+        try {
+            Files.deleteIfExists(file(userId));
+        } catch (IOException e) {
+            log.warn("Falha ao remover o índice de busca do usuário {}", userId, e);
+        }
+    }
+
+    private Path file(Long userId) {
+        return indexDir.resolve("user-" + userId + ".idx");
+    }
+
+    /**
+     * Card encontrado e a sua nota BM25
+     */
+    public record SearchMatch(long flashcardId, double score) {
+    }
+}
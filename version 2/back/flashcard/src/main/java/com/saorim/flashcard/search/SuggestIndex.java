@@ -0,0 +1,109 @@
+package com.saorim.flashcard.search;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saorim.flashcard.dto.Suggestion;
+import com.saorim.flashcard.repository.CategoryRepository;
+import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.transaction.AfterCommit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Autocompletar de perguntas e nomes de categoria, a partir de uma trie por usuário.
+ * A trie é montada na primeira consulta, sai da memória depois de app.suggest.idle-ttl
+ * sem uso e é atualizada pelos serviços depois do commit enquanto estiver carregada.
+ */
+@Component
+public class SuggestIndex {
+
+    private final FlashcardRepository flashcardRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Long, SuggestTrie> tries;
+    private final Timer suggestTimer;
+
+    public SuggestIndex(FlashcardRepository flashcardRepository,
+                        CategoryRepository categoryRepository,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.suggest.idle-ttl:30m}") Duration idleTtl,
+                        @Value("${app.suggest.max-users-in-memory:10000}") long maxUsers) {
+        this.flashcardRepository = flashcardRepository;
+        this.categoryRepository = categoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.tries = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tries, "suggest");
+        this.suggestTimer = Timer.builder("flashcards.suggest")
+                .description("Tempo de resposta do autocompletar (sem a carga inicial da trie)")
+                .register(meterRegistry);
+    }
+
+    public List<Suggestion> suggest(Long userId, String prefix, int limit) {
+        SuggestTrie trie = tries.get(userId, this::load);
+        return suggestTimer.record(() -> trie.complete(prefix, limit));
+    }
+
+    public void added(Long userId, Suggestion suggestion) {
+        AfterCommit.run(() -> {
+            SuggestTrie trie = tries.getIfPresent(userId);
+            if (trie != null) {
+                trie.add(suggestion);
+            }
+        });
+    }
+
+    public void removed(Long userId, Suggestion suggestion) {
+        AfterCommit.run(() -> {
+            SuggestTrie trie = tries.getIfPresent(userId);
+            if (trie != null) {
+                trie.remove(suggestion);
+            }
+        });
+    }
+
+    /**
+     * Troca um título pelo outro (edição de pergunta ou renomeação de categoria)
+     */
+    public void replaced(Long userId, Suggestion before, Suggestion after) {
+        if (!before.equals(after)) {
+            removed(userId, before);
+            added(userId, after);
+        }
+    }
+
+    /**
+     * Descarta a trie do usuário (remoções em massa); ela é remontada na próxima consulta
+     */
+    public void invalidate(Long userId) {
+        AfterCommit.run(() -> tries.invalidate(userId));
+    }
+
+    private SuggestTrie load(Long userId) {
+        SuggestTrie trie = new SuggestTrie();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> questions = flashcardRepository.streamQuestionsByUserId(userId)) {
+                questions.forEach(question -> trie.add(Suggestion.question(question)));
+            }
+            categoryRepository.findNamesByUserId(userId)
+                .forEach(name -> trie.add(Suggestion.category(name)));
+        });
+        return trie;
+    }
+}
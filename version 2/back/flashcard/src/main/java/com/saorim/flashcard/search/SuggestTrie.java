@@ -0,0 +1,226 @@
+package com.saorim.flashcard.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.saorim.flashcard.dto.Suggestion;
+
+/**
+ * Trie compacta (radix) dos títulos normalizados de um usuário. Cada título também entra
+ * a partir de cada uma das primeiras palavras, então "fran" sugere "Capital da França".
+ * Os valores contam referências: dois cards com a mesma pergunta viram uma sugestão só.
+ */
+class SuggestTrie {
+
+    private static final int MAX_WORD_STARTS = 8;
+
+    private final Node root = new Node("");
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Node {
+        private String label;
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private Map<Suggestion, Integer> values;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void retain(Suggestion suggestion) {
+            if (values == null) {
+                values = new LinkedHashMap<>(2);
+            }
+            values.merge(suggestion, 1, Integer::sum);
+        }
+
+        boolean release(Suggestion suggestion) {
+            if (values == null || !values.containsKey(suggestion)
+                    || values.computeIfPresent(suggestion, (s, n) -> n > 1 ? n - 1 : null) != null) {
+                return false;
+            }
+            if (values.isEmpty()) {
+                values = null;
+            }
+            return true;
+        }
+    }
+
+    void add(Suggestion suggestion) {
+        Set<String> keys = keys(suggestion.getText());
+        lock.writeLock().lock();
+        try {
+            keys.forEach(key -> insert(key, suggestion));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Suggestion suggestion) {
+        Set<String> keys = keys(suggestion.getText());
+        lock.writeLock().lock();
+        try {
+            keys.forEach(key -> delete(key, suggestion));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Até {@code limit} sugestões cujo título (ou uma das palavras dele) começa com o prefixo,
+     * das chaves mais curtas para as mais longas
+     */
+    List<Suggestion> complete(String prefix, int limit) {
+        String key = TextAnalyzer.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    return List.of();
+                }
+                int common = commonPrefix(child.label, key, i);
+                if (i + common < key.length() && common < child.label.length()) {
+                    return List.of();
+                }
+                node = child;
+                i += common;
+            }
+
+            Set<Suggestion> found = new LinkedHashSet<>();
+            Deque<Node> queue = new ArrayDeque<>();
+            queue.add(node);
+            while (!queue.isEmpty() && found.size() < limit) {
+                Node current = queue.poll();
+                if (current.values != null) {
+                    for (Suggestion suggestion : current.values.keySet()) {
+                        if (found.size() < limit) {
+                            found.add(suggestion);
+                        }
+                    }
+                }
+                queue.addAll(current.children.values());
+            }
+            return new ArrayList<>(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de nós abaixo da raiz (usado nos testes para conferir a compactação)
+     */
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            Deque<Node> queue = new ArrayDeque<>(root.children.values());
+            while (!queue.isEmpty()) {
+                count++;
+                queue.addAll(queue.poll().children.values());
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> keys(String text) {
+        String normalized = TextAnalyzer.normalize(text);
+        Set<String> keys = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        int from = 0;
+        for (int words = 1; words < MAX_WORD_STARTS; words++) {
+            int space = normalized.indexOf(' ', from);
+            if (space < 0) {
+                break;
+            }
+            from = space + 1;
+            keys.add(normalized.substring(from));
+        }
+        return keys;
+    }
+
+    private void insert(String key, Suggestion suggestion) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.children.put(key.charAt(i), child);
+                child.retain(suggestion);
+                return;
+            }
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Divide a aresta no ponto em que a chave diverge
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(split.label.charAt(0), split);
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+        node.retain(suggestion);
+    }
+
+    private void delete(String key, Suggestion suggestion) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return;
+            }
+            path.push(node);
+            node = child;
+            i += child.label.length();
+        }
+        if (!node.release(suggestion)) {
+            return;
+        }
+        // Remove nós vazios e junta de volta arestas que ficaram com um único filho
+        while (!path.isEmpty() && node.values == null) {
+            Node parent = path.pop();
+            if (node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+                node = parent;
+            } else {
+                if (node.children.size() == 1) {
+                    Node only = node.children.firstEntry().getValue();
+                    only.label = node.label + only.label;
+                    parent.children.put(only.label.charAt(0), only);
+                }
+                return;
+            }
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,169 @@
+package com.saorim.flashcard.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Quebra o texto em termos para o índice de busca: minúsculas, sem acentos
+ * ("revisão" e "revisao" viram o mesmo termo), sem stop words e com um stemming
+ * leve de plural (português e inglês). Cada termo guarda a posição no texto
+ * original, usada no destaque dos resultados.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "o", "as", "os", "ao", "aos", "de", "da", "do", "das", "dos", "e", "em", "no", "na", "nos", "nas",
+        "um", "uma", "uns", "umas", "que", "se", "por", "para", "com",
+        "an", "the", "of", "and", "or", "to", "in", "on", "is", "for");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Termo normalizado e o trecho [start, end) de onde ele saiu no texto original
+     */
+    record Token(String term, int start, int end) {
+    }
+
+    static List<Token> tokens(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder word = new StringBuilder();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                }
+                fold(c, word);
+            } else if (start >= 0 && Character.getType(c) == Character.NON_SPACING_MARK) {
+                // Acento já decomposto no texto (NFD): faz parte da palavra e é descartado
+                continue;
+            } else if (start >= 0) {
+                String folded = word.toString();
+                if (!STOP_WORDS.contains(folded)) {
+                    tokens.add(new Token(stem(folded), start, i));
+                }
+                word.setLength(0);
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Termos distintos da consulta, na ordem em que aparecem
+     */
+    public static Set<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (Token token : tokens(query)) {
+            terms.add(token.term());
+        }
+        return terms;
+    }
+
+    /**
+     * Texto em minúsculas e sem acentos, com as palavras separadas por um único espaço (sem stemming)
+     */
+    public static String normalize(String text) {
+        StringBuilder out = new StringBuilder();
+        if (text == null) {
+            return "";
+        }
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && out.length() > 0) {
+                    out.append(' ');
+                }
+                pendingSpace = false;
+                fold(c, out);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                pendingSpace = true;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Devolve o texto escapado para HTML com os termos encontrados entre {@code <mark>} e {@code </mark>}
+     */
+    public static String highlight(String text, Set<String> terms) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        int last = 0;
+        for (Token token : tokens(text)) {
+            if (terms.contains(token.term())) {
+                out.append(escape(text.substring(last, token.start())))
+                   .append("<mark>")
+                   .append(escape(text.substring(token.start(), token.end())))
+                   .append("</mark>");
+                last = token.end();
+            }
+        }
+        return out.append(escape(text.substring(last))).toString();
+    }
+
+    /**
+     * Escapa só os caracteres especiais do HTML; os acentos seguem em UTF-8
+     */
+    private static String escape(String text) {
+        return HtmlUtils.htmlEscape(text, "UTF-8");
+    }
+
+    private static void fold(char c, StringBuilder word) {
+        if (c < 128) {
+            word.append(Character.toLowerCase(c));
+            return;
+        }
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        for (int i = 0; i < decomposed.length(); i++) {
+            char d = decomposed.charAt(i);
+            if (Character.getType(d) != Character.NON_SPACING_MARK) {
+                word.append(Character.toLowerCase(d));
+            }
+        }
+    }
+
+    /**
+     * Reduz plurais comuns ao singular: lições → licao, papéis → papel, flores → flor, studies → study.
+     * O "e" final também sai, no singular e no plural, para que as duas formas virem o mesmo termo
+     * (case e cases → cas, vez e vezes → vez)
+     */
+    static String stem(String term) {
+        int n = term.length();
+        if (n <= 3) {
+            return term;
+        }
+        if (term.charAt(n - 1) == 's') {
+            if (term.endsWith("oes") || term.endsWith("aes")) {
+                return term.substring(0, n - 3) + "ao";
+            }
+            if (n > 4 && (term.endsWith("ais") || term.endsWith("eis") || term.endsWith("ois"))) {
+                return term.substring(0, n - 2) + "l";
+            }
+            if (n > 4 && term.endsWith("ies")) {
+                return term.substring(0, n - 3) + "y";
+            }
+            if (term.endsWith("ns")) {
+                return term.substring(0, n - 2) + "m";
+            }
+            if (term.endsWith("ss") || term.endsWith("us") || term.endsWith("is")) {
+                return term;
+            }
+            term = term.substring(0, --n);
+        }
+        return n > 3 && term.charAt(n - 1) == 'e' ? term.substring(0, n - 1) : term;
+    }
+}
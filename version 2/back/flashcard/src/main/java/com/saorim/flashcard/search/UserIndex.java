@@ -0,0 +1,248 @@
+package com.saorim.flashcard.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.saorim.flashcard.search.FlashcardSearchIndex.SearchMatch;
+
+/**
+ * Índice invertido dos cards de um usuário, com ranking BM25.
+ * A pergunta pesa o dobro da resposta (BM25F simplificado: as frequências dos
+ * dois campos são somadas com peso antes da saturação). Guarda a versão do texto
+ * (SearchIndexVersion) que já contém.
+ */
+class UserIndex {
+
+    private static final int FORMAT_VERSION = 2;
+    private static final int QUESTION_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+    private long maxId;
+    private long contentVersion;
+    private volatile boolean dirty;
+
+    UserIndex(long contentVersion) {
+        this.contentVersion = contentVersion;
+    }
+
+    /**
+     * Frequência (já com peso) de cada termo do card e o comprimento ponderado dele
+     */
+    private record Doc(Map<String, Integer> terms, int length) {
+    }
+
+    /**
+     * Indexa o card durante a montagem do índice, que já nasce na versão lida do banco
+     */
+    void add(long flashcardId, String question, String answer) {
+        Doc doc = doc(question, answer);
+        lock.writeLock().lock();
+        try {
+            unlink(flashcardId);
+            link(flashcardId, doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa o card se a alteração for a seguinte à versão do índice; devolve false (sem mudar nada)
+     * se alguma alteração anterior não chegou aqui e o índice precisa ser reconstruído
+     */
+    boolean put(long version, long flashcardId, String question, String answer) {
+        Doc doc = doc(question, answer);
+        lock.writeLock().lock();
+        try {
+            if (version != contentVersion + 1) {
+                return false;
+            }
+            contentVersion = version;
+            unlink(flashcardId);
+            link(flashcardId, doc);
+            dirty = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(long version, long flashcardId) {
+        lock.writeLock().lock();
+        try {
+            if (version != contentVersion + 1) {
+                return false;
+            }
+            contentVersion = version;
+            unlink(flashcardId);
+            dirty = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cards que contêm algum dos termos, do mais relevante para o menos (empate pelo id)
+     */
+    List<SearchMatch> search(Set<String> queryTerms, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int n = docs.size();
+            if (n == 0) {
+                return List.of();
+            }
+            double avgLength = Math.max(1.0, (double) totalLength / n);
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : queryTerms) {
+                Map<Long, Integer> postingList = postings.get(term);
+                if (postingList == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - postingList.size() + 0.5) / (postingList.size() + 0.5));
+                postingList.forEach((id, tf) -> {
+                    double norm = K1 * (1 - B + B * docs.get(id).length() / avgLength);
+                    scores.merge(id, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                });
+            }
+            return scores.entrySet().stream()
+                .map(e -> new SearchMatch(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingDouble(SearchMatch::score).reversed().thenComparingLong(SearchMatch::flashcardId))
+                .skip(offset)
+                .limit(limit)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long maxId() {
+        lock.readLock().lock();
+        try {
+            return maxId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long contentVersion() {
+        lock.readLock().lock();
+        try {
+            return contentVersion;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Grava só os documentos; as listas invertidas são refeitas na leitura
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            dirty = false;
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(contentVersion);
+            out.writeInt(docs.size());
+            for (Map.Entry<Long, Doc> entry : docs.entrySet()) {
+                Doc doc = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeInt(doc.length());
+                out.writeInt(doc.terms().size());
+                for (Map.Entry<String, Integer> term : doc.terms().entrySet()) {
+                    out.writeUTF(term.getKey());
+                    out.writeInt(term.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static UserIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Versão do índice incompatível");
+        }
+        UserIndex index = new UserIndex(in.readLong());
+        int docCount = in.readInt();
+        for (int i = 0; i < docCount; i++) {
+            long id = in.readLong();
+            int length = in.readInt();
+            int termCount = in.readInt();
+            Map<String, Integer> terms = new HashMap<>(termCount * 2);
+            for (int t = 0; t < termCount; t++) {
+                terms.put(in.readUTF(), in.readInt());
+            }
+            index.link(id, new Doc(terms, length));
+        }
+        return index;
+    }
+
+    private static Doc doc(String question, String answer) {
+        Map<String, Integer> terms = new HashMap<>();
+        int length = 0;
+        for (TextAnalyzer.Token token : TextAnalyzer.tokens(question)) {
+            terms.merge(token.term(), QUESTION_WEIGHT, Integer::sum);
+            length += QUESTION_WEIGHT;
+        }
+        for (TextAnalyzer.Token token : TextAnalyzer.tokens(answer)) {
+            terms.merge(token.term(), 1, Integer::sum);
+            length++;
+        }
+        return new Doc(terms, length);
+    }
+
+    private void link(long flashcardId, Doc doc) {
+        docs.put(flashcardId, doc);
+        totalLength += doc.length();
+        maxId = Math.max(maxId, flashcardId);
+        doc.terms().forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(flashcardId, tf));
+    }
+
+    private boolean unlink(long flashcardId) {
+        Doc doc = docs.remove(flashcardId);
+        if (doc == null) {
+            return false;
+        }
+        totalLength -= doc.length();
+        doc.terms().keySet().forEach(term -> {
+            Map<Long, Integer> postingList = postings.get(term);
+            postingList.remove(flashcardId);
+            if (postingList.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+        if (flashcardId == maxId) {
+            maxId = docs.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,111 @@
+package com.saorim.flashcard.security;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lista em memória dos "jti" revogados no logout.
+ * Os ids ficam em baldes pelo minuto de expiração do token: a consulta vai direto ao
+ * balde certo, passa por um filtro de Bloom e só confirma no conjunto exato quando
+ * o Bloom acusa presença. Baldes vencidos são descartados inteiros, em segundo plano.
+ */
+@Component
+public class AccessTokenDenylist {
+
+    private static final long BUCKET_MS = 60_000L;
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private final int bloomBits;
+
+    public AccessTokenDenylist(@Value("${app.jwt.denylist.bloom-bits:65536}") int bloomBits) {
+        this.bloomBits = bloomBits;
+    }
+
+    /**
+     * Revoga o token até a sua expiração natural
+     */
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        buckets.computeIfAbsent(slot(expiresAt.getTime()), s -> new Bucket(bloomBits)).add(jti);
+    }
+
+    public boolean isRevoked(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return false;
+        }
+        Bucket bucket = buckets.get(slot(expiresAt.getTime()));
+        return bucket != null && bucket.contains(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.denylist.prune-interval:60000}")
+    public void prune() {
+        prune(System.currentTimeMillis());
+    }
+
+    /**
+     * Descarta os baldes cujos tokens já expiraram em {@code nowMillis}
+     */
+    void prune(long nowMillis) {
+        buckets.headMap(slot(nowMillis)).clear();
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private static long slot(long epochMillis) {
+        return epochMillis / BUCKET_MS;
+    }
+
+    private static final class Bucket {
+        private final AtomicLongArray bloom;
+        private final int bits;
+        private final Set<String> exact = ConcurrentHashMap.newKeySet();
+
+        Bucket(int bits) {
+            this.bits = bits;
+            this.bloom = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        void add(String jti) {
+            exact.add(jti);
+            int h1 = jti.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < 3; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << (bit & 63);
+                bloom.getAndAccumulate(bit >>> 6, mask, (current, m) -> current | m);
+            }
+        }
+
+        boolean contains(String jti) {
+            int h1 = jti.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < 3; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((bloom.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return exact.contains(jti);
+        }
+
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h | 1;
+        }
+    }
+}
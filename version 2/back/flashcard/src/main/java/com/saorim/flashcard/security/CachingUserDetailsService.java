@@ -0,0 +1,77 @@
+package com.saorim.flashcard.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.saorim.flashcard.config.UserDetailsImpl;
+import com.saorim.flashcard.repository.UserRepository;
+import com.saorim.flashcard.transaction.AfterCommit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Decorador com cache em memória sobre o {@link UserDetailsServiceImpl}.
+ * As entradas são invalidadas pelos serviços sempre que o usuário muda.
+ * Também regrava o hash no login quando o custo do BCrypt configurado aumenta.
+ */
+@Service
+public class CachingUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+    private final UserDetailsServiceImpl delegate;
+    private final Cache<String, UserDetailsImpl> cache;
+
+    public CachingUserDetailsService(UserRepository userRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.auth.user-cache.max-size:10000}") long maxSize,
+                                     @Value("${app.auth.user-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.delegate = new UserDetailsServiceImpl(userRepository);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return cache.get(username, delegate::loadUserByUsername);
+    }
+
+    /**
+     * Chamado pelo DaoAuthenticationProvider quando o hash salvo usa um custo menor que o atual
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordHash(user.getUsername(), newPassword);
+        evict(user.getUsername());
+        return loadUserByUsername(user.getUsername());
+    }
+
+    /**
+     * Remove o usuário do cache agora e novamente após o commit, para não guardar um snapshot antigo
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+        AfterCommit.run(() -> cache.invalidate(username));
+    }
+
+    /**
+     * Contadores de acerto, falha e remoção do cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -9,6 +9,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.saorim.flashcard.config.UserDetailsImpl;
+
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,11 +20,16 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private JwtTokenProvider tokenProvider;
-    private UserDetailsServiceImpl userDetailsService;
+    private CachingUserDetailsService userDetailsService;
+    private TokenRevocationRegistry revocationRegistry;
+    private AccessTokenDenylist denylist;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsServiceImpl userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CachingUserDetailsService userDetailsService,
+                                   TokenRevocationRegistry revocationRegistry, AccessTokenDenylist denylist) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.revocationRegistry = revocationRegistry;
+        this.denylist = denylist;
     }
 
     @Override
@@ -30,10 +38,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.resolveClaims(jwt) : null;
+
+            UserDetails userDetails = claims != null ? resolveUserDetails(claims) : null;
+
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -47,6 +56,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Usa as claims do token; só consulta o banco para tokens emitidos antes de conterem o id do usuário
+     */
+    private UserDetails resolveUserDetails(Claims claims) {
+        if (tokenProvider.isPurgeStatusToken(claims) || denylist.isRevoked(claims.getId(), claims.getExpiration())) {
+            return null;
+        }
+        UserDetailsImpl fromClaims = tokenProvider.getUserDetailsFromClaims(claims);
+        if (fromClaims == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        if (revocationRegistry.isRevoked(fromClaims.getId(), fromClaims.getTokenVersion())) {
+            return null;
+        }
+        return fromClaims;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
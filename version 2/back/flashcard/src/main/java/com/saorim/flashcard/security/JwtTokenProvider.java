@@ -2,6 +2,7 @@ package com.saorim.flashcard.security;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -11,6 +12,7 @@ import com.saorim.flashcard.config.UserDetailsImpl;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -24,44 +26,120 @@ public class JwtTokenProvider {
     @Value("${app.jwt.expiration}")
     private int jwtExpirationInMs;
 
+    @Value("${app.users.purge.status-token-expiration:86400000}")
+    private long purgeStatusExpirationInMs;
+
     private Key key;
+    private JwtParser parser;
+
+    private final JwtClaimsCache claimsCache;
+
+    public JwtTokenProvider(JwtClaimsCache claimsCache) {
+        this.claimsCache = claimsCache;
+    }
 
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+    private static final String CLAIM_PURGE_JOB = "purge";
+
     public String generateToken(Authentication authentication) {
-        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
-        
+        return generateToken((UserDetailsImpl) authentication.getPrincipal());
+    }
+
+    public String generateToken(UserDetailsImpl userPrincipal) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Token que dá acesso ao progresso de uma exclusão de conta; não tem usuário e não serve como access token
+     */
+    public String generatePurgeStatusToken(String jobId) {
+        Date now = new Date();
+        return Jwts.builder()
+                .claim(CLAIM_PURGE_JOB, jobId)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + purgeStatusExpirationInMs))
+                .signWith(key)
+                .compact();
+    }
 
-        return claims.getSubject();
+    /**
+     * Verifica se o token foi emitido para o progresso deste job e ainda vale
+     */
+    public boolean isPurgeStatusToken(String token, String jobId) {
+        Claims claims = resolveClaims(token);
+        return claims != null && jobId.equals(claims.get(CLAIM_PURGE_JOB, String.class));
     }
 
-    public boolean validateToken(String token) {
+    public boolean isPurgeStatusToken(Claims claims) {
+        return claims.get(CLAIM_PURGE_JOB) != null;
+    }
+
+    /**
+     * Validade do access token em segundos
+     */
+    public long getExpirationInSeconds() {
+        return jwtExpirationInMs / 1000;
+    }
+
+    /**
+     * Monta o principal a partir das claims; retorna null para tokens antigos sem id do usuário
+     */
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return null;
+        }
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return new UserDetailsImpl(userId.longValue(),
+                                   claims.getSubject(),
+                                   claims.get(CLAIM_EMAIL, String.class),
+                                   tokenVersion != null ? tokenVersion.longValue() : 0L);
+    }
+
+    /**
+     * Verifica o token uma única vez e devolve as claims (servidas do cache nas chamadas seguintes)
+     */
+    public Claims getClaims(String token) {
+        return claimsCache.get(token, t -> parser.parseClaimsJws(t).getBody());
+    }
+
+    /**
+     * Retorna as claims do token ou null se ele for inválido ou estiver expirado
+     */
+    public Claims resolveClaims(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            return getClaims(token);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
 
+    public String getUsernameFromToken(String token) {
+        return getClaims(token).getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        return resolveClaims(token) != null;
+    }
+
 }
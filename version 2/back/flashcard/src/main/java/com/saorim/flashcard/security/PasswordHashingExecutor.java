@@ -0,0 +1,67 @@
+package com.saorim.flashcard.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.saorim.flashcard.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pool dedicado para o BCrypt de login e cadastro, separado das threads do Tomcat.
+ * Com a fila cheia a requisição falha na hora em vez de esperar.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final long retryAfterSeconds;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${app.auth.hash-pool-size:4}") int poolSize,
+                                   @Value("${app.auth.hash-queue-capacity:64}") int queueCapacity,
+                                   @Value("${app.auth.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("Tempo das tarefas de hash de senha (login e cadastro)")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Tarefas de hash aguardando na fila")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Tarefas de hash em execução")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Agenda a tarefa no pool; lança {@link ServiceUnavailableException} se a fila estiver cheia
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Servidor ocupado, tente novamente em instantes", retryAfterSeconds);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,58 @@
+package com.saorim.flashcard.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.saorim.flashcard.repository.UserRepository;
+import com.saorim.flashcard.transaction.AfterCommit;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Versão mínima de token aceita por usuário. Só contém usuários cuja versão
+ * já foi incrementada (troca de senha, alteração de perfil ou exclusão da conta),
+ * então o filtro de autenticação consulta apenas memória.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final long ACCOUNT_DELETED = Long.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final Map<Long, Long> minimumVersions = new ConcurrentHashMap<>();
+
+    public TokenRevocationRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        for (Object[] row : userRepository.findBumpedTokenVersions()) {
+            minimumVersions.merge((Long) row[0], (Long) row[1], Math::max);
+        }
+    }
+
+    /**
+     * Indica se um token emitido com a versão informada não vale mais
+     */
+    public boolean isRevoked(Long userId, long tokenVersion) {
+        Long minimum = minimumVersions.get(userId);
+        return minimum != null && tokenVersion < minimum;
+    }
+
+    /**
+     * Passa a rejeitar tokens com versão menor que a informada (após o commit, se houver transação)
+     */
+    public void revokeBefore(Long userId, long tokenVersion) {
+        AfterCommit.run(() -> minimumVersions.merge(userId, tokenVersion, Math::max));
+    }
+
+    /**
+     * Rejeita todos os tokens do usuário
+     */
+    public void revokeAll(Long userId) {
+        AfterCommit.run(() -> minimumVersions.put(userId, ACCOUNT_DELETED));
+    }
+}
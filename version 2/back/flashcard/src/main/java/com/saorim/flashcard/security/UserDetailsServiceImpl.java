@@ -1,15 +1,15 @@
 package com.saorim.flashcard.security;
 
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.stereotype.Service;
 
 import com.saorim.flashcard.config.UserDetailsImpl;
 import com.saorim.flashcard.model.User;
 import com.saorim.flashcard.repository.UserRepository;
 
-@Service
+/**
+ * Carrega o usuário do banco. Não é um bean: é usado através do {@link CachingUserDetailsService}.
+ */
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
@@ -19,7 +19,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     }
 
     @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public UserDetailsImpl loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
         return new UserDetailsImpl(user);
@@ -0,0 +1,173 @@
+package com.saorim.flashcard.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.saorim.flashcard.exception.ResourceNotFoundException;
+import com.saorim.flashcard.model.AccountPurgeJob;
+import com.saorim.flashcard.model.AccountPurgeJob.Status;
+import com.saorim.flashcard.repository.AccountPurgeJobRepository;
+import com.saorim.flashcard.repository.CategoryRepository;
+import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.repository.RefreshTokenRepository;
+import com.saorim.flashcard.repository.UserRepository;
+import com.saorim.flashcard.search.FlashcardSearchIndex;
+import com.saorim.flashcard.search.SuggestIndex;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Remove em segundo plano os dados das contas excluídas. Cada lote de app.users.purge.chunk-size
+ * linhas é apagado numa transação curta, junto com o progresso do job, para não segurar locks nem
+ * conexões por muito tempo. Os jobs ficam no banco: depois de uma queda, o job é retomado quando
+ * a concessão (app.users.purge.lease) vence. A ordem é cards, categorias e, por fim, o usuário.
+ */
+@Service
+public class AccountPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountPurgeService.class);
+
+    private final AccountPurgeJobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final FlashcardRepository flashcardRepository;
+    private final CategoryRepository categoryRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final StatsCounterService statsCounterService;
+    private final FlashcardSearchIndex searchIndex;
+    private final SuggestIndex suggestIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration lease;
+    private final Counter purgedFlashcards;
+
+    public AccountPurgeService(AccountPurgeJobRepository jobRepository,
+                               UserRepository userRepository,
+                               FlashcardRepository flashcardRepository,
+                               CategoryRepository categoryRepository,
+                               RefreshTokenRepository refreshTokenRepository,
+                               StatsCounterService statsCounterService,
+                               FlashcardSearchIndex searchIndex,
+                               SuggestIndex suggestIndex,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.users.purge.chunk-size:1000}") int chunkSize,
+                               @Value("${app.users.purge.lease:2m}") Duration lease) {
+        this.jobRepository = jobRepository;
+        this.userRepository = userRepository;
+        this.flashcardRepository = flashcardRepository;
+        this.categoryRepository = categoryRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.statsCounterService = statsCounterService;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+
+        this.purgedFlashcards = Counter.builder("users.purge.flashcards")
+                .description("Flashcards removidos por exclusões de conta")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra o job na transação corrente; o processamento começa no próximo ciclo do agendador
+     */
+    @Transactional
+    public AccountPurgeJob schedule(Long userId) {
+        AccountPurgeJob job = new AccountPurgeJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setUserId(userId);
+        job.setStatus(Status.PENDING);
+        job.setTotalFlashcards(flashcardRepository.countByUserId(userId));
+        job.setCreatedAt(LocalDateTime.now());
+        return jobRepository.save(job);
+    }
+
+    @Transactional(readOnly = true)
+    public AccountPurgeJob getJob(String id) {
+        return jobRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Exclusão de conta não encontrada: " + id));
+    }
+
+    @Scheduled(initialDelayString = "${app.users.purge.poll-interval:2000}",
+               fixedDelayString = "${app.users.purge.poll-interval:2000}")
+    public void run() {
+        for (String jobId : jobRepository.findRunnableIds(Status.DONE, LocalDateTime.now())) {
+            try {
+                process(jobId);
+            } catch (RuntimeException e) {
+                // A concessão vence e o job é retomado num próximo ciclo
+                log.warn("Falha na exclusão da conta do job {}", jobId, e);
+            }
+        }
+    }
+
+    private void process(String jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Long userId = transactionTemplate.execute(status ->
+            jobRepository.claim(jobId, Status.RUNNING, Status.DONE, now, now.plus(lease)) > 0
+                ? jobRepository.findById(jobId).map(AccountPurgeJob::getUserId).orElse(null)
+                : null);
+        if (userId == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        while (purgeFlashcards(jobId, userId)) {
+            // um lote por transação
+        }
+        while (purgeCategories(jobId, userId)) {
+            // um lote por transação
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Cards ou categorias criados durante a exclusão (requisições já em curso) saem aqui
+            flashcardRepository.deleteAllByUserId(userId);
+            categoryRepository.deleteAllByUserId(userId);
+            refreshTokenRepository.deleteAllByUserId(userId);
+            statsCounterService.userDeleted(userId);
+            userRepository.deleteUserById(userId);
+            jobRepository.finish(jobId, Status.DONE, LocalDateTime.now());
+            searchIndex.userDeleted(userId);
+            suggestIndex.invalidate(userId);
+        });
+        log.info("Conta {} removida em {} ms (job {})", userId, (System.nanoTime() - started) / 1_000_000, jobId);
+    }
+
+    private boolean purgeFlashcards(String jobId, Long userId) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = flashcardRepository.findAnyIdsByUserId(userId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return false;
+            }
+            int deleted = flashcardRepository.deleteAllByIdIn(ids);
+            jobRepository.progress(jobId, deleted, 0, LocalDateTime.now().plus(lease));
+            purgedFlashcards.increment(deleted);
+            return true;
+        });
+    }
+
+    private boolean purgeCategories(String jobId, Long userId) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = categoryRepository.findAnyIdsByUserId(userId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return false;
+            }
+            int deleted = categoryRepository.deleteAllByIdIn(ids);
+            jobRepository.progress(jobId, 0, deleted, LocalDateTime.now().plus(lease));
+            return true;
+        });
+    }
+}
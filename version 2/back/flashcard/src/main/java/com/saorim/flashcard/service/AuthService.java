@@ -1,5 +1,7 @@
 package com.saorim.flashcard.service;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -7,6 +9,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.saorim.flashcard.config.UserDetailsImpl;
@@ -16,7 +20,13 @@ import com.saorim.flashcard.dto.SignupRequest;
 import com.saorim.flashcard.exception.ResourceNotFoundException;
 import com.saorim.flashcard.model.User;
 import com.saorim.flashcard.repository.UserRepository;
+import com.saorim.flashcard.security.AccessTokenDenylist;
+import com.saorim.flashcard.security.CachingUserDetailsService;
 import com.saorim.flashcard.security.JwtTokenProvider;
+import com.saorim.flashcard.security.PasswordHashingExecutor;
+import com.saorim.flashcard.security.TokenRevocationRegistry;
+
+import io.jsonwebtoken.Claims;
 
 @Service
 @Transactional
@@ -26,46 +36,69 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final CachingUserDetailsService userDetailsService;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final RefreshTokenService refreshTokenService;
+    private final AccessTokenDenylist denylist;
 
     public AuthService(AuthenticationManager authenticationManager,
                       UserRepository userRepository,
                       PasswordEncoder passwordEncoder,
-                      JwtTokenProvider tokenProvider) {
+                      JwtTokenProvider tokenProvider,
+                      TokenRevocationRegistry revocationRegistry,
+                      CachingUserDetailsService userDetailsService,
+                      PasswordHashingExecutor hashingExecutor,
+                      RefreshTokenService refreshTokenService,
+                      AccessTokenDenylist denylist) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.tokenProvider = tokenProvider;
+        this.revocationRegistry = revocationRegistry;
+        this.userDetailsService = userDetailsService;
+        this.hashingExecutor = hashingExecutor;
+        this.refreshTokenService = refreshTokenService;
+        this.denylist = denylist;
     }
 
     /**
-     * Autentica um usuário e retorna o token JWT
+     * Autentica um usuário e retorna o token JWT.
+     * A verificação do BCrypt roda no pool de hash, fora da thread da requisição.
      */
-    public JwtResponse authenticateUser(LoginRequest loginRequest) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    loginRequest.getUsername(),
-                    loginRequest.getPassword()
-                )
-            );
-
-            String jwt = tokenProvider.generateToken(authentication);
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-
-            return new JwtResponse(jwt,
-                                 userDetails.getId(),
-                                 userDetails.getUsername(),
-                                 userDetails.getEmail());
-                                 
-        } catch (AuthenticationException e) {
-            throw new BadCredentialsException("Credenciais inválidas");
-        }
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<JwtResponse> authenticateUser(LoginRequest loginRequest) {
+        return hashingExecutor.submit(() -> {
+            try {
+                Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                        loginRequest.getUsername(),
+                        loginRequest.getPassword()
+                    )
+                );
+
+                String jwt = tokenProvider.generateToken(authentication);
+                UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+                String refreshToken = refreshTokenService.issue(userDetails.getId());
+
+                return new JwtResponse(jwt,
+                                     refreshToken,
+                                     tokenProvider.getExpirationInSeconds(),
+                                     userDetails.getId(),
+                                     userDetails.getUsername(),
+                                     userDetails.getEmail());
+                                     
+            } catch (AuthenticationException e) {
+                throw new BadCredentialsException("Credenciais inválidas");
+            }
+        });
     }
 
     /**
-     * Registra um novo usuário
+     * Registra um novo usuário; o hash da senha é gerado no pool de hash
      */
-    public String registerUser(SignupRequest signUpRequest) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<String> registerUser(SignupRequest signUpRequest) {
         // Verificar se username já existe
         if (userRepository.existsByUsername(signUpRequest.getUsername())) {
             throw new IllegalArgumentException("Username já está em uso!");
@@ -83,11 +116,44 @@ public class AuthService {
         User user = new User();
         user.setUsername(signUpRequest.getUsername().trim());
         user.setEmail(signUpRequest.getEmail().toLowerCase().trim());
-        user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
 
-        userRepository.save(user);
+        return hashingExecutor.submit(() -> {
+            user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
+            userRepository.save(user);
+            return "Usuário registrado com sucesso!";
+        });
+    }
 
-        return "Usuário registrado com sucesso!";
+    /**
+     * Troca o refresh token por um novo par de tokens (o refresh token apresentado é invalidado)
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public JwtResponse refreshToken(String rawRefreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(rawRefreshToken);
+        User user = rotation.user();
+
+        String jwt = tokenProvider.generateToken(new UserDetailsImpl(user));
+        return new JwtResponse(jwt,
+                             rotation.refreshToken(),
+                             tokenProvider.getExpirationInSeconds(),
+                             user.getId(),
+                             user.getUsername(),
+                             user.getEmail());
+    }
+
+    /**
+     * Encerra a sessão: revoga o access token atual (até expirar) e o refresh token informado
+     */
+    public void logout(String accessToken, String rawRefreshToken) {
+        if (StringUtils.hasText(accessToken)) {
+            Claims claims = tokenProvider.resolveClaims(accessToken);
+            if (claims != null) {
+                denylist.revoke(claims.getId(), claims.getExpiration());
+            }
+        }
+        if (StringUtils.hasText(rawRefreshToken)) {
+            refreshTokenService.revoke(rawRefreshToken);
+        }
     }
 
     /**
@@ -144,7 +210,11 @@ public class AuthService {
     public void updatePassword(String username, String newPassword) {
         User user = findByUsername(username);
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        revocationRegistry.revokeBefore(user.getId(), user.getTokenVersion());
+        refreshTokenService.revokeAll(user.getId());
+        userDetailsService.evict(username);
     }
 
     /**
@@ -1,14 +1,19 @@
 package com.saorim.flashcard.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.saorim.flashcard.dto.CategoryCopyResult;
+import com.saorim.flashcard.dto.Suggestion;
 import com.saorim.flashcard.model.Category;
-import com.saorim.flashcard.model.User;
 import com.saorim.flashcard.repository.CategoryRepository;
+import com.saorim.flashcard.repository.FlashcardRepository;
 import com.saorim.flashcard.repository.UserRepository;
+import com.saorim.flashcard.search.FlashcardSearchIndex;
+import com.saorim.flashcard.search.SuggestIndex;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -16,47 +21,122 @@ import jakarta.persistence.EntityNotFoundException;
 @Transactional
 public class CategoryService {
 
+    private static final String COPY_SUFFIX = " (Cópia)";
+    private static final int MAX_NAME_LENGTH = 100;
+
     private final CategoryRepository categoryRepository;
+    private final FlashcardRepository flashcardRepository;
     private final UserRepository userRepository;
+    private final StatsCounterService statsCounterService;
+    private final FlashcardSearchIndex searchIndex;
+    private final SuggestIndex suggestIndex;
 
-    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository) {
+    public CategoryService(CategoryRepository categoryRepository, FlashcardRepository flashcardRepository,
+                           UserRepository userRepository,
+                           StatsCounterService statsCounterService, FlashcardSearchIndex searchIndex,
+                           SuggestIndex suggestIndex) {
         this.categoryRepository = categoryRepository;
+        this.flashcardRepository = flashcardRepository;
         this.userRepository = userRepository;
+        this.statsCounterService = statsCounterService;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
     }
 
     public Category createCategory(Category category, String username) {
-        User user = getUserByUsername(username);
-        category.setUser(user);
-        return categoryRepository.save(category);
+        return createCategory(category, getUserIdByUsername(username));
+    }
+
+    public Category createCategory(Category category, Long userId) {
+        category.setUser(userRepository.getReferenceById(userId));
+        Category saved = categoryRepository.save(category);
+        statsCounterService.categoryCreated(userId, saved.getId());
+        suggestIndex.added(userId, Suggestion.category(saved.getName()));
+        return saved;
     }
 
     public List<Category> getAllCategories(String username) {
-        User user = getUserByUsername(username);
-        return categoryRepository.findByUserId(user.getId());
+        return getAllCategories(getUserIdByUsername(username));
+    }
+
+    public List<Category> getAllCategories(Long userId) {
+        return categoryRepository.findByUserId(userId);
     }
 
     public Category getCategory(Long id, String username) {
-        User user = getUserByUsername(username);
-        return categoryRepository.findByIdAndUserId(id, user.getId())
+        return getCategory(id, getUserIdByUsername(username));
+    }
+
+    public Category getCategory(Long id, Long userId) {
+        return categoryRepository.findByIdAndUserId(id, userId)
             .orElseThrow(() -> new EntityNotFoundException("Category not found"));
     }
 
     public Category updateCategory(Long id, Category categoryDetails, String username) {
-        Category category = getCategory(id, username);
+        return updateCategory(id, categoryDetails, getUserIdByUsername(username));
+    }
+
+    public Category updateCategory(Long id, Category categoryDetails, Long userId) {
+        Category category = getCategory(id, userId);
+        String previousName = category.getName();
         
         category.setName(categoryDetails.getName());
         category.setDescription(categoryDetails.getDescription());
         
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        suggestIndex.replaced(userId, Suggestion.category(previousName), Suggestion.category(saved.getName()));
+        return saved;
+    }
+
+    /**
+     * Copia a categoria e todos os seus cards; os cards são copiados no banco, sem passar pela JVM
+     */
+    public CategoryCopyResult duplicateCategory(Long id, Long userId) {
+        Category original = getCategory(id, userId);
+
+        Category duplicate = new Category();
+        duplicate.setName(copyName(original.getName()));
+        duplicate.setDescription(original.getDescription());
+        duplicate.setUser(original.getUser());
+        // O INSERT ... SELECT referencia a categoria nova, que precisa estar gravada
+        Category saved = categoryRepository.saveAndFlush(duplicate);
+        statsCounterService.categoryCreated(userId, saved.getId());
+
+        int copied = flashcardRepository.copyCategoryFlashcards(userId, id, saved.getId(), LocalDateTime.now());
+        statsCounterService.flashcardsAdded(userId, saved.getId(), copied);
+        if (copied > 0) {
+            searchIndex.invalidate(userId);
+            suggestIndex.invalidate(userId);
+        } else {
+            suggestIndex.added(userId, Suggestion.category(saved.getName()));
+        }
+        return new CategoryCopyResult(saved.getId(), saved.getName(), copied);
     }
 
     public void deleteCategory(Long id, String username) {
-        Category category = getCategory(id, username);
-        categoryRepository.delete(category);
+        deleteCategory(id, getUserIdByUsername(username));
+    }
+
+    public void deleteCategory(Long id, Long userId) {
+        getCategory(id, userId);
+        // Um DELETE para os cards e outro para a categoria, sem carregar os cards
+        flashcardRepository.deleteAllByCategoryId(id, userId);
+        statsCounterService.categoryDeleted(userId, id);
+        categoryRepository.deleteByIdAndUserId(id, userId);
+        // Os índices são refeitos na próxima consulta
+        searchIndex.invalidate(userId);
+        suggestIndex.invalidate(userId);
+    }
+
+    /**
+     * Nome da cópia, cortado para caber no limite de 100 caracteres do nome da categoria
+     */
+    private static String copyName(String name) {
+        return name.substring(0, Math.min(name.length(), MAX_NAME_LENGTH - COPY_SUFFIX.length())) + COPY_SUFFIX;
     }
 
-    private User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+    private Long getUserIdByUsername(String username) {
+        return userRepository.findIdByUsername(username)
             .orElseThrow(() -> new EntityNotFoundException("User not found"));
     }
 }
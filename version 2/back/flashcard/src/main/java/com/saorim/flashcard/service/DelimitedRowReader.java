@@ -0,0 +1,123 @@
+package com.saorim.flashcard.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.saorim.flashcard.dto.ImportRow;
+
+/**
+ * Leitor de CSV/TSV em fluxo, um registro por vez. Campos entre aspas podem conter o separador,
+ * quebras de linha e aspas duplicadas (RFC 4180). A primeira linha é o cabeçalho, com as colunas
+ * question e answer (ou pergunta e resposta) e, opcionalmente, category (ou categoria).
+ */
+class DelimitedRowReader {
+
+    // Campos maiores já são inválidos (@Size); o excesso é descartado para não crescer a memória
+    private static final int MAX_FIELD_LENGTH = 4096;
+
+    private final BufferedReader reader;
+    private final char delimiter;
+    private int questionColumn = -1;
+    private int answerColumn = -1;
+    private int categoryColumn = -1;
+
+    DelimitedRowReader(BufferedReader reader, char delimiter) throws IOException {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        readHeader();
+    }
+
+    /**
+     * Próximo registro, ou null no fim do arquivo. Linhas em branco são ignoradas.
+     */
+    ImportRow next() throws IOException {
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+        return new ImportRow(field(fields, questionColumn), field(fields, answerColumn), field(fields, categoryColumn));
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("Arquivo vazio");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            switch (name) {
+                case "question", "pergunta" -> questionColumn = i;
+                case "answer", "resposta" -> answerColumn = i;
+                case "category", "categoria" -> categoryColumn = i;
+                default -> { }
+            }
+        }
+        if (questionColumn < 0 || answerColumn < 0) {
+            throw new IllegalArgumentException("O cabeçalho precisa das colunas question e answer");
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        append(field, '"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    append(field, (char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                append(field, (char) c);
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void append(StringBuilder field, char c) {
+        if (field.length() < MAX_FIELD_LENGTH) {
+            field.append(c);
+        }
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column) : null;
+    }
+}
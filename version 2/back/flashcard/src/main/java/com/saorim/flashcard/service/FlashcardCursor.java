@@ -0,0 +1,32 @@
+package com.saorim.flashcard.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição da paginação por chave: o último id entregue e, nas listas ordenadas por data,
+ * a data desse card. Trafega como texto Base64 opaco para o cliente.
+ */
+record FlashcardCursor(LocalDateTime sortKey, long id) {
+
+    static FlashcardCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                return new FlashcardCursor(null, Long.parseLong(raw));
+            }
+            return new FlashcardCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    String encode() {
+        String raw = sortKey != null ? sortKey + "|" + id : Long.toString(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
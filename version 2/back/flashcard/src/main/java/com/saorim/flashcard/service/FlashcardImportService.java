@@ -0,0 +1,327 @@
+package com.saorim.flashcard.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.saorim.flashcard.dto.CategoryRequest;
+import com.saorim.flashcard.dto.FlashcardRequest;
+import com.saorim.flashcard.dto.ImportResult;
+import com.saorim.flashcard.dto.ImportRow;
+import com.saorim.flashcard.model.Category;
+import com.saorim.flashcard.model.Flashcard;
+import com.saorim.flashcard.repository.CategoryRepository;
+import com.saorim.flashcard.repository.FlashcardInsert;
+import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.repository.UserRepository;
+import com.saorim.flashcard.search.FlashcardSearchIndex;
+import com.saorim.flashcard.search.SuggestIndex;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Importação em massa de flashcards a partir de CSV, TSV ou JSON (array ou NDJSON).
+ * O arquivo é lido em fluxo e processado em lotes de app.flashcards.import.batch-size linhas:
+ * cada lote é validado em paralelo e gravado num batch JDBC, na sua própria transação.
+ * A memória depende do tamanho do lote, não do arquivo.
+ */
+@Service
+public class FlashcardImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashcardImportService.class);
+
+    private final FlashcardRepository flashcardRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final StatsCounterService statsCounterService;
+    private final FlashcardSearchIndex searchIndex;
+    private final SuggestIndex suggestIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final Counter importedCounter;
+    private final Counter failedCounter;
+
+    public FlashcardImportService(FlashcardRepository flashcardRepository,
+                                  CategoryRepository categoryRepository,
+                                  UserRepository userRepository,
+                                  StatsCounterService statsCounterService,
+                                  FlashcardSearchIndex searchIndex,
+                                  SuggestIndex suggestIndex,
+                                  Validator validator,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.flashcards.import.batch-size:500}") int batchSize,
+                                  @Value("${app.flashcards.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.flashcardRepository = flashcardRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.statsCounterService = statsCounterService;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        this.importedCounter = Counter.builder("flashcards.import.rows")
+                .tag("result", "imported")
+                .description("Linhas importadas")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("flashcards.import.rows")
+                .tag("result", "failed")
+                .description("Linhas rejeitadas na importação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Formatos aceitos; sem o parâmetro format, o formato vem da extensão do arquivo
+     */
+    public enum Format {
+        CSV, TSV, JSON;
+
+        static Format resolve(String format, String filename) {
+            String name = format;
+            if (name == null && filename != null && filename.lastIndexOf('.') >= 0) {
+                name = filename.substring(filename.lastIndexOf('.') + 1);
+            }
+            if (name == null) {
+                throw new IllegalArgumentException("Informe o formato: csv, tsv ou json");
+            }
+            return switch (name.toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "tsv", "tab" -> TSV;
+                case "json", "ndjson", "jsonl" -> JSON;
+                default -> throw new IllegalArgumentException("Formato não suportado: " + name);
+            };
+        }
+    }
+
+    /**
+     * Fonte de linhas do arquivo; devolve null no fim
+     */
+    private interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    public ImportResult importFlashcards(InputStream in, String format, String filename, Long userId) throws IOException {
+        Format resolved = Format.resolve(format, filename);
+        ImportResult result = new ImportResult();
+        Map<String, Long> categoryIds = loadCategoryIds(userId);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            RowSource rows = open(resolved, reader);
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            long firstRow = 1;
+            try {
+                ImportRow row;
+                while ((row = rows.next()) != null) {
+                    batch.add(row);
+                    if (batch.size() == batchSize) {
+                        importBatch(batch, firstRow, userId, categoryIds, result);
+                        firstRow += batch.size();
+                        batch.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // JSON malformado: o que veio antes é importado, o restante do arquivo é descartado
+                result.setTotal(result.getTotal() + 1);
+                addError(result, firstRow + batch.size(), "JSON inválido: " + e.getOriginalMessage());
+            }
+            importBatch(batch, firstRow, userId, categoryIds, result);
+        } finally {
+            if (result.getImported() > 0) {
+                searchIndex.invalidate(userId);
+                suggestIndex.invalidate(userId);
+            }
+        }
+        log.debug("Importação do usuário {}: {} linhas, {} importadas, {} com erro",
+            userId, result.getTotal(), result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private RowSource open(Format format, BufferedReader reader) throws IOException {
+        return switch (format) {
+            case CSV -> new DelimitedRowReader(reader, ',')::next;
+            case TSV -> new DelimitedRowReader(reader, '\t')::next;
+            case JSON -> {
+                MappingIterator<ImportRow> values = objectMapper.readerFor(ImportRow.class).readValues(reader);
+                yield () -> {
+                    try {
+                        return values.hasNextValue() ? values.nextValue() : null;
+                    } catch (RuntimeJsonMappingException e) {
+                        // Tipos errados (ex.: "question": {}) podem vir embrulhados; vira erro da linha
+                        throw e.getCause() instanceof JsonMappingException cause
+                            ? cause : new JsonMappingException(reader, e.getMessage(), e);
+                    }
+                };
+            }
+        };
+    }
+
+    private void importBatch(List<ImportRow> batch, long firstRow, Long userId,
+                             Map<String, Long> categoryIds, ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        result.setTotal(result.getTotal() + batch.size());
+
+        List<String> errors = IntStream.range(0, batch.size()).parallel()
+            .mapToObj(i -> validate(batch.get(i)))
+            .toList();
+        List<ImportRow> valid = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors.get(i) != null) {
+                addError(result, firstRow + i, errors.get(i));
+            } else {
+                valid.add(batch.get(i));
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            long created = transactionTemplate.execute(status -> insert(valid, userId, categoryIds));
+            result.setImported(result.getImported() + valid.size());
+            result.setCategoriesCreated(result.getCategoriesCreated() + created);
+            importedCounter.increment(valid.size());
+        } catch (DataAccessException e) {
+            // Categorias criadas no lote foram desfeitas junto com ele
+            categoryIds.clear();
+            categoryIds.putAll(loadCategoryIds(userId));
+            log.warn("Falha ao gravar o lote de importação a partir da linha {}", firstRow, e);
+            for (int i = 0; i < batch.size(); i++) {
+                if (errors.get(i) == null) {
+                    addError(result, firstRow + i, "Falha ao gravar o lote");
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava as linhas válidas do lote e devolve quantas categorias novas foram criadas
+     */
+    private long insert(List<ImportRow> rows, Long userId, Map<String, Long> categoryIds) {
+        long created = 0;
+        List<FlashcardInsert> inserts = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            Long categoryId = null;
+            String name = row.getCategory() != null ? row.getCategory().trim() : "";
+            if (!name.isEmpty()) {
+                String key = name.toLowerCase(Locale.ROOT);
+                categoryId = categoryIds.get(key);
+                if (categoryId == null) {
+                    categoryId = createCategory(name, userId);
+                    categoryIds.put(key, categoryId);
+                    created++;
+                }
+            }
+            inserts.add(new FlashcardInsert(row.getQuestion(), row.getAnswer(), categoryId));
+        }
+        if (created > 0) {
+            // Com ids de tabela o INSERT da categoria fica para o flush; o batch JDBC precisa dela gravada
+            categoryRepository.flush();
+        }
+        flashcardRepository.insertFlashcards(userId, inserts, LocalDateTime.now());
+
+        Map<Long, Long> perCategory = inserts.stream()
+            .collect(Collectors.groupingBy(i -> Objects.requireNonNullElse(i.categoryId(), 0L), Collectors.counting()));
+        perCategory.forEach((categoryId, count) ->
+            statsCounterService.flashcardsAdded(userId, categoryId == 0L ? null : categoryId, count));
+        return created;
+    }
+
+    private Long createCategory(String name, Long userId) {
+        Category category = new Category();
+        category.setName(name);
+        category.setUser(userRepository.getReferenceById(userId));
+        Category saved = categoryRepository.save(category);
+        statsCounterService.categoryCreated(userId, saved.getId());
+        return saved.getId();
+    }
+
+    /**
+     * Valida a linha com as mesmas regras do cadastro; devolve null se estiver ok
+     */
+    private String validate(ImportRow row) {
+        FlashcardRequest request = new FlashcardRequest();
+        request.setQuestion(row.getQuestion());
+        request.setAnswer(row.getAnswer());
+        List<String> messages = new ArrayList<>();
+        for (ConstraintViolation<FlashcardRequest> violation : validator.validate(request)) {
+            // O tamanho é conferido abaixo contra a coluna, que é menor que o limite da API
+            if (!(violation.getConstraintDescriptor().getAnnotation() instanceof Size)) {
+                messages.add(violation.getMessage());
+            }
+        }
+        // Sem isto a linha longa derrubaria o lote inteiro no banco
+        if (tooLongForColumn(row.getQuestion())) {
+            messages.add("Pergunta não pode ter mais de " + Flashcard.TEXT_MAX_LENGTH + " caracteres");
+        }
+        if (tooLongForColumn(row.getAnswer())) {
+            messages.add("Resposta não pode ter mais de " + Flashcard.TEXT_MAX_LENGTH + " caracteres");
+        }
+        if (row.getCategory() != null && !row.getCategory().isBlank()) {
+            CategoryRequest category = new CategoryRequest();
+            category.setName(row.getCategory().trim());
+            for (ConstraintViolation<CategoryRequest> violation : validator.validateProperty(category, "name")) {
+                messages.add(violation.getMessage());
+            }
+        }
+        messages.sort(null);
+        return messages.isEmpty() ? null : String.join("; ", messages);
+    }
+
+    private static boolean tooLongForColumn(String value) {
+        return value != null && value.codePointCount(0, value.length()) > Flashcard.TEXT_MAX_LENGTH;
+    }
+
+    private Map<String, Long> loadCategoryIds(Long userId) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Category category : categoryRepository.findByUserId(userId)) {
+            ids.putIfAbsent(category.getName().trim().toLowerCase(Locale.ROOT), category.getId());
+        }
+        return ids;
+    }
+
+    private void addError(ImportResult result, long row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        failedCounter.increment();
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ImportResult.RowError(row, message));
+        }
+    }
+}
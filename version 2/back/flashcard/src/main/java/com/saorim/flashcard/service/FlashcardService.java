@@ -1,19 +1,53 @@
 package com.saorim.flashcard.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.saorim.flashcard.dto.BulkOperationRequest;
+import com.saorim.flashcard.dto.BulkOperationResult;
+import com.saorim.flashcard.dto.CursorPage;
+import com.saorim.flashcard.dto.FlashcardLookupResult;
+import com.saorim.flashcard.dto.FlashcardSearchHit;
+import com.saorim.flashcard.dto.ReviewItem;
+import com.saorim.flashcard.dto.ReviewResult;
+import com.saorim.flashcard.dto.Suggestion;
 import com.saorim.flashcard.model.Category;
 import com.saorim.flashcard.model.Flashcard;
-import com.saorim.flashcard.model.User;
+import com.saorim.flashcard.repository.CategoryCount;
 import com.saorim.flashcard.repository.CategoryRepository;
+import com.saorim.flashcard.repository.CategoryStatsRow;
+import com.saorim.flashcard.repository.FlashcardFilter;
 import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.repository.ReviewUpdate;
 import com.saorim.flashcard.repository.UserRepository;
+import com.saorim.flashcard.search.FlashcardSearchIndex;
+import com.saorim.flashcard.search.FlashcardSearchIndex.SearchMatch;
+import com.saorim.flashcard.search.SuggestIndex;
+import com.saorim.flashcard.search.TextAnalyzer;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -24,87 +58,293 @@ public class FlashcardService {
     private final FlashcardRepository flashcardRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final ReviewWriteBehindBuffer reviewBuffer;
+    private final StatsCounterService statsCounterService;
+    private final FlashcardSearchIndex searchIndex;
+    private final SuggestIndex suggestIndex;
+    private final ObjectWriter exportWriter;
     private final Random random = new Random();
+    private final int reviewBatchMaxSize;
+    private final int randomMaxCount;
+    private final int pageDefaultLimit;
+    private final int pageMaxLimit;
+    private final int suggestDefaultLimit;
+    private final int suggestMaxLimit;
+    private final int bulkMaxIds;
+    private final int getMaxIds;
 
     public FlashcardService(FlashcardRepository flashcardRepository,
                           CategoryRepository categoryRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          ReviewWriteBehindBuffer reviewBuffer,
+                          StatsCounterService statsCounterService,
+                          FlashcardSearchIndex searchIndex,
+                          SuggestIndex suggestIndex,
+                          ObjectMapper objectMapper,
+                          @Value("${app.flashcards.review-batch-max-size:500}") int reviewBatchMaxSize,
+                          @Value("${app.flashcards.random-max-count:100}") int randomMaxCount,
+                          @Value("${app.flashcards.page-default-limit:100}") int pageDefaultLimit,
+                          @Value("${app.flashcards.page-max-limit:500}") int pageMaxLimit,
+                          @Value("${app.suggest.default-limit:10}") int suggestDefaultLimit,
+                          @Value("${app.suggest.max-limit:50}") int suggestMaxLimit,
+                          @Value("${app.flashcards.bulk-max-ids:1000}") int bulkMaxIds,
+                          @Value("${app.flashcards.get-max-ids:500}") int getMaxIds) {
         this.flashcardRepository = flashcardRepository;
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.reviewBuffer = reviewBuffer;
+        this.statsCounterService = statsCounterService;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.exportWriter = objectMapper.writerFor(Flashcard.class);
+        this.reviewBatchMaxSize = reviewBatchMaxSize;
+        this.randomMaxCount = randomMaxCount;
+        this.pageDefaultLimit = pageDefaultLimit;
+        this.pageMaxLimit = pageMaxLimit;
+        this.suggestDefaultLimit = suggestDefaultLimit;
+        this.suggestMaxLimit = suggestMaxLimit;
+        this.bulkMaxIds = bulkMaxIds;
+        this.getMaxIds = getMaxIds;
     }
 
     public Flashcard createFlashcard(Flashcard flashcard, String username) {
-        User user = getUserByUsername(username);
-        flashcard.setUser(user);
+        return createFlashcard(flashcard, getUserIdByUsername(username));
+    }
+
+    public Flashcard createFlashcard(Flashcard flashcard, Long userId) {
+        flashcard.setUser(userRepository.getReferenceById(userId));
+        flashcard.setNextDueAt(LocalDateTime.now());
         
         if (flashcard.getCategory() != null && flashcard.getCategory().getId() != null) {
             Category category = categoryRepository.findByIdAndUserId(
-                flashcard.getCategory().getId(), user.getId())
+                flashcard.getCategory().getId(), userId)
                 .orElseThrow(() -> new EntityNotFoundException("Category not found"));
             flashcard.setCategory(category);
         }
         
-        return flashcardRepository.save(flashcard);
+        Flashcard saved = flashcardRepository.save(flashcard);
+        statsCounterService.flashcardAdded(userId, categoryIdOf(saved), saved.getLastReviewed() != null);
+        searchIndex.put(saved);
+        suggestIndex.added(userId, Suggestion.question(saved.getQuestion()));
+        return saved;
     }
 
     public List<Flashcard> getAllFlashcards(String username) {
-        User user = getUserByUsername(username);
-        return flashcardRepository.findByUserId(user.getId());
+        return getAllFlashcards(getUserIdByUsername(username));
+    }
+
+    public List<Flashcard> getAllFlashcards(Long userId) {
+        return flashcardRepository.findByUserId(userId);
+    }
+
+    /**
+     * Página dos flashcards do usuário em ordem de id, a partir do cursor
+     */
+    public CursorPage<Flashcard> getFlashcardsPage(Long userId, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        return pageById(flashcardRepository.findPageByUserId(userId, afterId(cursor), PageRequest.of(0, size + 1)), size);
+    }
+
+    /**
+     * Escreve todos os cards do usuário em NDJSON (um objeto por linha). As linhas vêm do pool
+     * de exportação, sem entidades gerenciadas, então a memória não cresce com o tamanho do deck
+     * e nenhuma conexão do pool principal fica presa durante o download.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportFlashcards(Long userId, OutputStream out) throws IOException {
+        try (Stream<Flashcard> flashcards = flashcardRepository.streamByUserId(userId)) {
+            Iterator<Flashcard> it = flashcards.iterator();
+            while (it.hasNext()) {
+                out.write(exportWriter.writeValueAsBytes(it.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
     }
 
     public Flashcard getFlashcard(Long id, String username) {
-        User user = getUserByUsername(username);
-        return flashcardRepository.findByIdAndUserId(id, user.getId())
+        return getFlashcard(id, getUserIdByUsername(username));
+    }
+
+    public Flashcard getFlashcard(Long id, Long userId) {
+        return flashcardRepository.findByIdAndUserId(id, userId)
             .orElseThrow(() -> new EntityNotFoundException("Flashcard not found"));
     }
 
+    /**
+     * Busca vários cards do usuário com uma única consulta; ids repetidos contam uma vez
+     */
+    @Transactional(readOnly = true)
+    public FlashcardLookupResult getFlashcards(List<Long> ids, Long userId) {
+        if (ids.isEmpty() || ids.size() > getMaxIds) {
+            throw new IllegalArgumentException("ids deve ter entre 1 e " + getMaxIds + " itens");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("ids não pode conter valores nulos");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, Flashcard> found = flashcardRepository.findAllByIdInAndUserId(requested, userId).stream()
+            .collect(Collectors.toMap(Flashcard::getId, Function.identity()));
+
+        List<Flashcard> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Flashcard flashcard = found.get(id);
+            if (flashcard != null) {
+                items.add(flashcard);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new FlashcardLookupResult(items, missing);
+    }
+
     public Flashcard updateFlashcard(Long id, Flashcard flashcardDetails, String username) {
-        Flashcard flashcard = getFlashcard(id, username);
+        return updateFlashcard(id, flashcardDetails, getUserIdByUsername(username));
+    }
+
+    public Flashcard updateFlashcard(Long id, Flashcard flashcardDetails, Long userId) {
+        Flashcard flashcard = getFlashcard(id, userId);
+        String previousQuestion = flashcard.getQuestion();
         
         flashcard.setQuestion(flashcardDetails.getQuestion());
         flashcard.setAnswer(flashcardDetails.getAnswer());
         
         if (flashcardDetails.getCategory() != null && flashcardDetails.getCategory().getId() != null) {
             Category category = categoryRepository.findByIdAndUserId(
-                flashcardDetails.getCategory().getId(), flashcard.getUser().getId())
+                flashcardDetails.getCategory().getId(), userId)
                 .orElseThrow(() -> new EntityNotFoundException("Category not found"));
+            statsCounterService.flashcardMoved(userId, categoryIdOf(flashcard), category.getId(),
+                flashcard.getLastReviewed() != null);
             flashcard.setCategory(category);
         }
         
-        return flashcardRepository.save(flashcard);
+        Flashcard saved = flashcardRepository.save(flashcard);
+        searchIndex.put(saved);
+        suggestIndex.replaced(userId, Suggestion.question(previousQuestion), Suggestion.question(saved.getQuestion()));
+        return saved;
     }
 
     public void deleteFlashcard(Long id, String username) {
-        Flashcard flashcard = getFlashcard(id, username);
+        deleteFlashcard(id, getUserIdByUsername(username));
+    }
+
+    public void deleteFlashcard(Long id, Long userId) {
+        Flashcard flashcard = getFlashcard(id, userId);
         flashcardRepository.delete(flashcard);
+        statsCounterService.flashcardRemoved(userId, categoryIdOf(flashcard), flashcard.getLastReviewed() != null);
+        searchIndex.remove(userId, id);
+        suggestIndex.removed(userId, Suggestion.question(flashcard.getQuestion()));
     }
 
     public Flashcard getRandomFlashcard(String username) {
-        User user = getUserByUsername(username);
-        List<Flashcard> flashcards = flashcardRepository.findByUserId(user.getId());
-        
-        if (flashcards.isEmpty()) {
-            throw new EntityNotFoundException("No flashcards found");
-        }
-        
-        return flashcards.get(random.nextInt(flashcards.size()));
+        return getRandomFlashcard(getUserIdByUsername(username));
+    }
+
+    public Flashcard getRandomFlashcard(Long userId) {
+        return getRandomFlashcards(userId, 1).get(0);
+    }
+
+    /**
+     * Sorteia até count flashcards distintos do usuário sem carregar o deck inteiro
+     */
+    public List<Flashcard> getRandomFlashcards(Long userId, int count) {
+        return pickRandom(flashcardRepository.countByUserId(userId), count,
+            ranks -> flashcardRepository.findIdsAtRanksByUserId(userId, ranks),
+            "No flashcards found");
     }
 
     public List<Flashcard> getFlashcardsByCategory(Long categoryId, String username) {
-        User user = getUserByUsername(username);
-        return flashcardRepository.findByCategoryIdAndUserId(categoryId, user.getId());
+        return getFlashcardsByCategory(categoryId, getUserIdByUsername(username));
+    }
+
+    public List<Flashcard> getFlashcardsByCategory(Long categoryId, Long userId) {
+        return flashcardRepository.findByCategoryIdAndUserId(categoryId, userId);
+    }
+
+    public CursorPage<Flashcard> getFlashcardsByCategoryPage(Long categoryId, Long userId, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        return pageById(flashcardRepository.findPageByCategoryIdAndUserId(
+            categoryId, userId, afterId(cursor), PageRequest.of(0, size + 1)), size);
     }
 
     public void updateReviewStatus(Long id, String username) {
-        Flashcard flashcard = getFlashcard(id, username);
-        flashcard.setLastReviewed(LocalDateTime.now());
-        flashcard.setReviewCount(flashcard.getReviewCount() + 1);
-        flashcardRepository.save(flashcard);
+        updateReviewStatus(id, getUserIdByUsername(username));
+    }
+
+    public void updateReviewStatus(Long id, Long userId) {
+        updateReviewStatus(id, userId, null);
     }
 
-    private User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+    /**
+     * Registra a revisão e reagenda o card pelo SM-2 com um único UPDATE atômico (sem carregar a entidade).
+     * Sem nota, vale {@link ReviewUpdate#DEFAULT_GRADE}.
+     * O card é travado antes do UPDATE para que a primeira revisão chegue aos contadores sem outra leitura.
+     * Com o write-behind ativo, revisões sem nota só conferem o dono e ficam para o buffer.
+     */
+    public void updateReviewStatus(Long id, Long userId, Integer grade) {
+        validateGrade(grade);
+        if (grade == null && reviewBuffer.isEnabled()) {
+            if (!flashcardRepository.existsByIdAndUserId(id, userId)) {
+                throw new EntityNotFoundException("Flashcard not found");
+            }
+            reviewBuffer.add(id, userId, LocalDateTime.now());
+            return;
+        }
+        List<Object[]> locked = flashcardRepository.lockForReview(id, userId);
+        if (locked.isEmpty()) {
+            throw new EntityNotFoundException("Flashcard not found");
+        }
+        ReviewUpdate review = new ReviewUpdate(id, userId, LocalDateTime.now(), 1,
+            grade != null ? grade : ReviewUpdate.DEFAULT_GRADE);
+        flashcardRepository.markReviewed(id, userId, review.reviewedAt(), review.count(),
+            review.passed() ? 1 : 0, review.easeDelta());
+        Object[] row = locked.get(0);
+        if (row[1] == null) {
+            Long categoryId = row[0] != null ? ((Number) row[0]).longValue() : null;
+            statsCounterService.reviewedChanged(userId, categoryId, 1);
+        }
+    }
+
+    /**
+     * Registra várias revisões numa transação, com um único batch JDBC.
+     * Retorna o resultado de cada item na mesma ordem do pedido.
+     */
+    public List<ReviewResult> recordReviews(List<ReviewItem> reviews, Long userId) {
+        if (reviews.size() > reviewBatchMaxSize) {
+            throw new IllegalArgumentException("Máximo de " + reviewBatchMaxSize + " revisões por lote");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ReviewUpdate> updates = new ArrayList<>(reviews.size());
+        for (ReviewItem review : reviews) {
+            LocalDateTime reviewedAt = review.getReviewedAt();
+            if (reviewedAt == null || reviewedAt.isAfter(now)) {
+                reviewedAt = now;
+            }
+            validateGrade(review.getGrade());
+            int grade = review.getGrade() != null ? review.getGrade() : ReviewUpdate.DEFAULT_GRADE;
+            updates.add(new ReviewUpdate(review.getId(), userId, reviewedAt, 1, grade));
+        }
+
+        Map<StatsCounterService.CounterKey, Long> firstReviews = statsCounterService.countFirstReviews(updates);
+        int[] counts = flashcardRepository.applyReviews(updates);
+        statsCounterService.applyFirstReviews(firstReviews);
+
+        List<ReviewResult> results = new ArrayList<>(reviews.size());
+        for (int i = 0; i < reviews.size(); i++) {
+            // SUCCESS_NO_INFO (-2) também indica linha atualizada
+            boolean updated = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+            results.add(new ReviewResult(reviews.get(i).getId(), updated ? ReviewResult.UPDATED : ReviewResult.NOT_FOUND));
+        }
+        return results;
+    }
+
+    /**
+     * Resolve apenas o id do usuário, sem carregar a entidade
+     */
+    private Long getUserIdByUsername(String username) {
+        return userRepository.findIdByUsername(username)
             .orElseThrow(() -> new EntityNotFoundException("User not found"));
     }
     
@@ -112,67 +352,104 @@ public class FlashcardService {
      * Busca flashcards que precisam de revisão
      */
     public List<Flashcard> getFlashcardsDueForReview(String username) {
-        User user = getUserByUsername(username);
-        return flashcardRepository.findDueForReviewByUserId(user.getId());
+        return getFlashcardsDueForReview(getUserIdByUsername(username));
+    }
+
+    public List<Flashcard> getFlashcardsDueForReview(Long userId) {
+        return getFlashcardsDueForReview(userId, null, null).getItems();
+    }
+
+    /**
+     * Cards com nextDueAt vencido, do mais atrasado para o mais recente, paginados por (nextDueAt, id)
+     */
+    public CursorPage<Flashcard> getFlashcardsDueForReview(Long userId, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, size + 1);
+        if (cursor == null) {
+            return pageByDue(flashcardRepository.findDueForReviewByUserId(userId, now, page), size);
+        }
+        FlashcardCursor after = dueCursor(cursor);
+        return pageByDue(flashcardRepository.findDueForReviewByUserIdAfter(
+            userId, now, after.sortKey(), after.id(), page), size);
     }
 
     /**
      * Busca flashcards que precisam de revisão por categoria
      */
     public List<Flashcard> getFlashcardsDueForReviewByCategory(Long categoryId, String username) {
-        User user = getUserByUsername(username);
-        
+        return getFlashcardsDueForReviewByCategory(categoryId, getUserIdByUsername(username));
+    }
+
+    public List<Flashcard> getFlashcardsDueForReviewByCategory(Long categoryId, Long userId) {
+        return getFlashcardsDueForReviewByCategory(categoryId, userId, null, null).getItems();
+    }
+
+    public CursorPage<Flashcard> getFlashcardsDueForReviewByCategory(Long categoryId, Long userId,
+                                                                     String cursor, Integer limit) {
         // Verificar se a categoria pertence ao usuário
-        categoryRepository.findByIdAndUserId(categoryId, user.getId())
+        categoryRepository.findByIdAndUserId(categoryId, userId)
             .orElseThrow(() -> new EntityNotFoundException("Category not found"));
         
-        return flashcardRepository.findDueForReviewByCategoryId(user.getId(), categoryId);
+        int size = pageSize(limit);
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, size + 1);
+        if (cursor == null) {
+            return pageByDue(flashcardRepository.findDueForReviewByCategoryId(userId, categoryId, now, page), size);
+        }
+        FlashcardCursor after = dueCursor(cursor);
+        return pageByDue(flashcardRepository.findDueForReviewByCategoryIdAfter(
+            userId, categoryId, now, after.sortKey(), after.id(), page), size);
     }
 
     /**
      * Busca flashcards aleatórios por categoria
      */
     public Flashcard getRandomFlashcardByCategory(Long categoryId, String username) {
-        User user = getUserByUsername(username);
-        List<Flashcard> flashcards = flashcardRepository.findByCategoryIdAndUserId(categoryId, user.getId());
-        
-        if (flashcards.isEmpty()) {
-            throw new EntityNotFoundException("No flashcards found in this category");
-        }
-        
-        return flashcards.get(random.nextInt(flashcards.size()));
+        return getRandomFlashcardByCategory(categoryId, getUserIdByUsername(username));
+    }
+
+    public Flashcard getRandomFlashcardByCategory(Long categoryId, Long userId) {
+        return getRandomFlashcardsByCategory(categoryId, userId, 1).get(0);
+    }
+
+    public List<Flashcard> getRandomFlashcardsByCategory(Long categoryId, Long userId, int count) {
+        return pickRandom(flashcardRepository.countByCategoryIdAndUserId(categoryId, userId), count,
+            ranks -> flashcardRepository.findIdsAtRanksByCategoryIdAndUserId(categoryId, userId, ranks),
+            "No flashcards found in this category");
     }
 
     /**
      * Conta flashcards por usuário
      */
     public long countFlashcardsByUser(String username) {
-        User user = getUserByUsername(username);
-        return flashcardRepository.findByUserId(user.getId()).size();
+        return countFlashcardsByUser(getUserIdByUsername(username));
+    }
+
+    public long countFlashcardsByUser(Long userId) {
+        return flashcardRepository.countByUserId(userId);
     }
 
     /**
      * Conta flashcards por categoria
      */
     public long countFlashcardsByCategory(Long categoryId, String username) {
-        User user = getUserByUsername(username);
-        return flashcardRepository.findByCategoryIdAndUserId(categoryId, user.getId()).size();
+        return countFlashcardsByCategory(categoryId, getUserIdByUsername(username));
+    }
+
+    public long countFlashcardsByCategory(Long categoryId, Long userId) {
+        return flashcardRepository.countByCategoryIdAndUserId(categoryId, userId);
     }
 
     /**
      * Obtém estatísticas de flashcards
      */
     public FlashcardStats getFlashcardStats(String username) {
-        User user = getUserByUsername(username);
-        List<Flashcard> allFlashcards = flashcardRepository.findByUserId(user.getId());
-        
-        long totalFlashcards = allFlashcards.size();
-        long reviewedFlashcards = allFlashcards.stream()
-            .filter(f -> f.getLastReviewed() != null)
-            .count();
-        long unreviewedFlashcards = totalFlashcards - reviewedFlashcards;
-        
-        return new FlashcardStats(totalFlashcards, reviewedFlashcards, unreviewedFlashcards);
+        return getFlashcardStats(getUserIdByUsername(username));
+    }
+
+    public FlashcardStats getFlashcardStats(Long userId) {
+        return statsCounterService.getStats(userId);
     }
 
     /**
@@ -188,17 +465,73 @@ public class FlashcardService {
 //            .collect(Collectors.toList());
 //    }
     public List<Flashcard> searchFlashcards(String searchTerm, String username) {
-        User user = getUserByUsername(username);
-        return flashcardRepository.searchByQuestionOrAnswer(user.getId(), searchTerm);
+        return searchFlashcards(searchTerm, getUserIdByUsername(username));
+    }
+
+    public List<Flashcard> searchFlashcards(String searchTerm, Long userId) {
+        return searchFlashcardsPage(searchTerm, userId, null, null).getItems().stream()
+            .map(FlashcardSearchHit::getFlashcard)
+            .toList();
+    }
+
+    /**
+     * Busca no índice invertido do usuário, ordenada por relevância (BM25).
+     * Aqui o cursor guarda a posição no ranking, não um id.
+     */
+    public CursorPage<FlashcardSearchHit> searchFlashcardsPage(String searchTerm, Long userId, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        long offset = afterId(cursor);
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        List<SearchMatch> matches = searchIndex.search(userId, searchTerm, (int) offset, size + 1);
+        List<SearchMatch> pageMatches = matches.subList(0, Math.min(size, matches.size()));
+
+        // Restrito ao usuário: um índice desatualizado não pode devolver cards de outra conta
+        Map<Long, Flashcard> flashcards = flashcardRepository.findAllByIdInAndUserId(
+                pageMatches.stream().map(SearchMatch::flashcardId).toList(), userId).stream()
+            .collect(Collectors.toMap(Flashcard::getId, Function.identity()));
+        Set<String> terms = TextAnalyzer.terms(searchTerm);
+        List<FlashcardSearchHit> hits = new ArrayList<>(pageMatches.size());
+        for (SearchMatch match : pageMatches) {
+            Flashcard flashcard = flashcards.get(match.flashcardId());
+            if (flashcard != null) {
+                hits.add(new FlashcardSearchHit(flashcard, match.score(),
+                    TextAnalyzer.highlight(flashcard.getQuestion(), terms),
+                    TextAnalyzer.highlight(flashcard.getAnswer(), terms)));
+            }
+        }
+        String nextCursor = matches.size() > size ? new FlashcardCursor(null, offset + size).encode() : null;
+        return new CursorPage<>(hits, nextCursor);
+    }
+
+    /**
+     * Autocompletar de perguntas e categorias; não abre transação, a trie fica em memória
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Suggestion> suggest(String prefix, Long userId, Integer limit) {
+        int size = limit != null ? limit : suggestDefaultLimit;
+        if (size < 1 || size > suggestMaxLimit) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + suggestMaxLimit);
+        }
+        return suggestIndex.suggest(userId, prefix, size);
     }
 
     /**
      * Reseta contadores de revisão de um flashcard
      */
     public void resetFlashcardReviewStatus(Long id, String username) {
-        Flashcard flashcard = getFlashcard(id, username);
+        resetFlashcardReviewStatus(id, getUserIdByUsername(username));
+    }
+
+    public void resetFlashcardReviewStatus(Long id, Long userId) {
+        Flashcard flashcard = getFlashcard(id, userId);
+        if (flashcard.getLastReviewed() != null) {
+            statsCounterService.reviewedChanged(userId, categoryIdOf(flashcard), -1);
+        }
         flashcard.setLastReviewed(null);
         flashcard.setReviewCount(0);
+        resetSchedule(flashcard);
         flashcardRepository.save(flashcard);
     }
 
@@ -206,7 +539,11 @@ public class FlashcardService {
      * Duplica um flashcard
      */
     public Flashcard duplicateFlashcard(Long id, String username) {
-        Flashcard original = getFlashcard(id, username);
+        return duplicateFlashcard(id, getUserIdByUsername(username));
+    }
+
+    public Flashcard duplicateFlashcard(Long id, Long userId) {
+        Flashcard original = getFlashcard(id, userId);
         
         Flashcard duplicate = new Flashcard();
         duplicate.setQuestion(original.getQuestion() + " (Cópia)");
@@ -215,8 +552,172 @@ public class FlashcardService {
         duplicate.setUser(original.getUser());
         duplicate.setReviewCount(0);
         duplicate.setLastReviewed(null);
+        resetSchedule(duplicate);
         
-        return flashcardRepository.save(duplicate);
+        Flashcard saved = flashcardRepository.save(duplicate);
+        statsCounterService.flashcardAdded(userId, categoryIdOf(saved), false);
+        searchIndex.put(saved);
+        suggestIndex.added(userId, Suggestion.question(saved.getQuestion()));
+        return saved;
+    }
+
+    /**
+     * Move, remove ou zera as revisões dos cards escolhidos por ids ou por filtro com um único
+     * UPDATE/DELETE restrito ao usuário; ids de outros usuários são ignorados. Os cards são contados
+     * por categoria antes da escrita e os contadores recebem a diferença depois, na mesma ordem
+     * (cards, depois contadores) das revisões em lote. Se outra requisição mexeu na seleção entre a
+     * contagem e a escrita, os contadores do usuário são recalculados.
+     */
+    public BulkOperationResult bulkOperation(BulkOperationRequest request, Long userId) {
+        FlashcardFilter filter = bulkFilter(request, userId);
+        Long targetId = request.getTargetCategoryId();
+        if (request.getOperation() == BulkOperationRequest.Operation.MOVE && targetId != null) {
+            categoryRepository.findByIdAndUserId(targetId, userId)
+                .orElseThrow(() -> new EntityNotFoundException("Category not found"));
+        }
+        List<CategoryCount> selected = flashcardRepository.countByCategory(userId, filter);
+        int affected = switch (request.getOperation()) {
+            case MOVE -> flashcardRepository.moveFlashcards(userId, filter, targetId);
+            case DELETE -> flashcardRepository.deleteFlashcards(userId, filter);
+            case RESET_REVIEW -> flashcardRepository.resetReviews(userId, filter, LocalDateTime.now());
+        };
+        if (affected == 0) {
+            return new BulkOperationResult(request.getOperation(), 0);
+        }
+        if (affected != selected.stream().mapToLong(CategoryCount::total).sum()) {
+            statsCounterService.recount(userId);
+        } else {
+            switch (request.getOperation()) {
+                case MOVE -> statsCounterService.flashcardsMoved(userId, selected, targetId);
+                case DELETE -> statsCounterService.flashcardsRemoved(userId, selected);
+                case RESET_REVIEW -> statsCounterService.reviewsReset(userId, selected);
+            }
+        }
+        if (request.getOperation() == BulkOperationRequest.Operation.DELETE) {
+            searchIndex.invalidate(userId);
+            suggestIndex.invalidate(userId);
+        }
+        return new BulkOperationResult(request.getOperation(), affected);
+    }
+
+    private FlashcardFilter bulkFilter(BulkOperationRequest request, Long userId) {
+        List<Long> ids = request.getIds();
+        BulkOperationRequest.Filter filter = request.getFilter();
+        if ((ids == null) == (filter == null)) {
+            throw new IllegalArgumentException("Informe ids ou filter (apenas um dos dois)");
+        }
+        if (ids != null) {
+            if (ids.isEmpty() || ids.size() > bulkMaxIds) {
+                throw new IllegalArgumentException("ids deve ter entre 1 e " + bulkMaxIds + " itens");
+            }
+            if (ids.contains(null)) {
+                throw new IllegalArgumentException("ids não pode conter valores nulos");
+            }
+            return new FlashcardFilter(Set.copyOf(ids), null, false, null);
+        }
+        if (filter.getCategoryId() == null && !filter.isUncategorized() && filter.getReviewed() == null) {
+            throw new IllegalArgumentException("O filtro precisa de ao menos um critério: categoryId, uncategorized ou reviewed");
+        }
+        if (filter.getCategoryId() != null && filter.isUncategorized()) {
+            throw new IllegalArgumentException("Use categoryId ou uncategorized, não os dois");
+        }
+        if (filter.getCategoryId() != null) {
+            categoryRepository.findByIdAndUserId(filter.getCategoryId(), userId)
+                .orElseThrow(() -> new EntityNotFoundException("Category not found"));
+        }
+        return new FlashcardFilter(null, filter.getCategoryId(), filter.isUncategorized(), filter.getReviewed());
+    }
+
+    /**
+     * Sorteia posições distintas (algoritmo de Floyd) e resolve todas numa única consulta
+     * que percorre os ids em ordem; só os cards sorteados são carregados.
+     */
+    private List<Flashcard> pickRandom(long total, int count, Function<Collection<Long>, List<Long>> idsAtRanks,
+                                       String emptyMessage) {
+        if (count < 1 || count > randomMaxCount) {
+            throw new IllegalArgumentException("count deve estar entre 1 e " + randomMaxCount);
+        }
+        if (total == 0) {
+            throw new EntityNotFoundException(emptyMessage);
+        }
+
+        int picks = (int) Math.min(count, total);
+        Set<Long> ranks = new HashSet<>();
+        for (long j = total - picks + 1; j <= total; j++) {
+            long rank = random.nextLong(j) + 1;
+            ranks.add(ranks.contains(rank) ? j : rank);
+        }
+
+        List<Long> ids = new ArrayList<>(idsAtRanks.apply(ranks));
+        Collections.shuffle(ids, random);
+
+        Map<Long, Flashcard> byId = flashcardRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Flashcard::getId, Function.identity()));
+        List<Flashcard> result = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        // Cards apagados entre a contagem e a busca podem esvaziar o sorteio
+        if (result.isEmpty()) {
+            throw new EntityNotFoundException(emptyMessage);
+        }
+        return result;
+    }
+
+    private int pageSize(Integer limit) {
+        int size = limit != null ? limit : pageDefaultLimit;
+        if (size < 1 || size > pageMaxLimit) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + pageMaxLimit);
+        }
+        return size;
+    }
+
+    private static long afterId(String cursor) {
+        return cursor != null ? FlashcardCursor.decode(cursor).id() : 0L;
+    }
+
+    private static FlashcardCursor dueCursor(String cursor) {
+        FlashcardCursor after = FlashcardCursor.decode(cursor);
+        if (after.sortKey() == null) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return after;
+    }
+
+    private static CursorPage<Flashcard> pageById(List<Flashcard> rows, int size) {
+        return page(rows, size, last -> new FlashcardCursor(null, last.getId()));
+    }
+
+    private static CursorPage<Flashcard> pageByDue(List<Flashcard> rows, int size) {
+        return page(rows, size, last -> new FlashcardCursor(last.getNextDueAt(), last.getId()));
+    }
+
+    /**
+     * As consultas trazem size + 1 linhas: a linha extra só indica que existe próxima página
+     */
+    private static CursorPage<Flashcard> page(List<Flashcard> rows, int size, Function<Flashcard, FlashcardCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Flashcard> items = new ArrayList<>(rows.subList(0, size));
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode());
+    }
+
+    private static void validateGrade(Integer grade) {
+        if (grade != null && (grade < 0 || grade > 5)) {
+            throw new IllegalArgumentException("grade deve estar entre 0 e 5");
+        }
+    }
+
+    /**
+     * Volta o card ao início do SM-2, vencendo agora
+     */
+    private static void resetSchedule(Flashcard flashcard) {
+        flashcard.setNextDueAt(LocalDateTime.now());
+        flashcard.setEaseFactor(2.5);
+        flashcard.setIntervalDays(0);
+        flashcard.setRepetitions(0);
+    }
+
+    private static Long categoryIdOf(Flashcard flashcard) {
+        return flashcard.getCategory() != null ? flashcard.getCategory().getId() : null;
     }
 
     // ========== Classe FlashcardStats ==========
@@ -224,11 +725,35 @@ public class FlashcardService {
         private long totalFlashcards;
         private long reviewedFlashcards;
         private long unreviewedFlashcards;
+        private long totalCategories;
+        private long dueFlashcards;
+        private List<CategoryStats> categories;
         
         public FlashcardStats(long totalFlashcards, long reviewedFlashcards, long unreviewedFlashcards) {
             this.totalFlashcards = totalFlashcards;
             this.reviewedFlashcards = reviewedFlashcards;
             this.unreviewedFlashcards = unreviewedFlashcards;
+            this.categories = new ArrayList<>();
+        }
+
+        /**
+         * Monta as estatísticas a partir das linhas agregadas; cards sem categoria só aparecem se existirem
+         */
+        public static FlashcardStats from(List<CategoryStatsRow> rows) {
+            FlashcardStats stats = new FlashcardStats(0, 0, 0);
+            for (CategoryStatsRow row : rows) {
+                stats.totalFlashcards += row.getTotal();
+                stats.reviewedFlashcards += row.getReviewed();
+                if (row.getCategoryId() != null) {
+                    stats.totalCategories++;
+                }
+                if (row.getCategoryId() != null || row.getTotal() > 0) {
+                    stats.categories.add(new CategoryStats(row.getCategoryId(), row.getCategoryName(),
+                        row.getTotal(), row.getReviewed()));
+                }
+            }
+            stats.unreviewedFlashcards = stats.totalFlashcards - stats.reviewedFlashcards;
+            return stats;
         }
         
         // Getters e Setters
@@ -240,5 +765,48 @@ public class FlashcardService {
         
         public long getUnreviewedFlashcards() { return unreviewedFlashcards; }
         public void setUnreviewedFlashcards(long unreviewedFlashcards) { this.unreviewedFlashcards = unreviewedFlashcards; }
+        
+        public long getTotalCategories() { return totalCategories; }
+        public void setTotalCategories(long totalCategories) { this.totalCategories = totalCategories; }
+        
+        public long getDueFlashcards() { return dueFlashcards; }
+        public void setDueFlashcards(long dueFlashcards) { this.dueFlashcards = dueFlashcards; }
+        
+        public List<CategoryStats> getCategories() { return categories; }
+        public void setCategories(List<CategoryStats> categories) { this.categories = categories; }
     }
+
+    // ========== Classe CategoryStats ==========
+    public static class CategoryStats {
+        private Long categoryId;
+        private String categoryName;
+        private long totalFlashcards;
+        private long reviewedFlashcards;
+        private long unreviewedFlashcards;
+        
+        public CategoryStats(Long categoryId, String categoryName, long totalFlashcards, long reviewedFlashcards) {
+            this.categoryId = categoryId;
+            this.categoryName = categoryName;
+            this.totalFlashcards = totalFlashcards;
+            this.reviewedFlashcards = reviewedFlashcards;
+            this.unreviewedFlashcards = totalFlashcards - reviewedFlashcards;
+        }
+        
+        // Getters e Setters
+        public Long getCategoryId() { return categoryId; }
+        public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+        
+        public String getCategoryName() { return categoryName; }
+        public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+        
+        public long getTotalFlashcards() { return totalFlashcards; }
+        public void setTotalFlashcards(long totalFlashcards) { this.totalFlashcards = totalFlashcards; }
+        
+        public long getReviewedFlashcards() { return reviewedFlashcards; }
+        public void setReviewedFlashcards(long reviewedFlashcards) { this.reviewedFlashcards = reviewedFlashcards; }
+        
+        public long getUnreviewedFlashcards() { return unreviewedFlashcards; }
+        public void setUnreviewedFlashcards(long unreviewedFlashcards) { this.unreviewedFlashcards = unreviewedFlashcards; }
+    }
+
 }
@@ -0,0 +1,116 @@
+package com.saorim.flashcard.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.saorim.flashcard.model.RefreshToken;
+import com.saorim.flashcard.model.User;
+import com.saorim.flashcard.repository.RefreshTokenRepository;
+import com.saorim.flashcard.repository.UserRepository;
+
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final long refreshExpirationInMs;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               @Value("${app.jwt.refresh-expiration}") long refreshExpirationInMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshExpirationInMs = refreshExpirationInMs;
+    }
+
+    /**
+     * Emite um novo refresh token para o usuário e devolve o valor em claro (só o hash é salvo)
+     */
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(rawToken));
+        refreshToken.setUser(userRepository.getReferenceById(userId));
+        refreshToken.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpirationInMs * 1_000_000L));
+        refreshTokenRepository.save(refreshToken);
+
+        return rawToken;
+    }
+
+    /**
+     * Troca um refresh token válido por um novo. Reapresentar um token já usado
+     * indica vazamento: todos os refresh tokens do usuário são revogados.
+     * O token é tomado com um UPDATE condicional, então duas trocas simultâneas
+     * do mesmo token não passam as duas: a segunda conta como reuso.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        RefreshToken current = refreshTokenRepository.findByTokenHash(tokenHash)
+            .orElseThrow(() -> new BadCredentialsException("Refresh token inválido"));
+
+        Long userId = current.getUser().getId();
+        if (current.isRevoked()) {
+            throw reused(userId);
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadCredentialsException("Refresh token expirado");
+        }
+        if (refreshTokenRepository.claim(tokenHash) == 0) {
+            throw reused(userId);
+        }
+
+        User user = current.getUser();
+        return new Rotation(user, issue(userId));
+    }
+
+    private BadCredentialsException reused(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+        return new BadCredentialsException("Refresh token já utilizado");
+    }
+
+    /**
+     * Revoga um refresh token específico (logout)
+     */
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .ifPresent(token -> token.setRevoked(true));
+    }
+
+    /**
+     * Revoga todos os refresh tokens do usuário (troca de senha)
+     */
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Resultado da rotação: o dono do token e o novo refresh token em claro
+     */
+    public record Rotation(User user, String refreshToken) {
+    }
+}
@@ -0,0 +1,177 @@
+package com.saorim.flashcard.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.repository.ReviewUpdate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Buffer write-behind das revisões (opcional, app.flashcards.review-write-behind.enabled).
+ * Revisões repetidas do mesmo card são agrupadas (vale o último horário, as contagens somam)
+ * e gravadas em lote por tamanho ou por tempo. O que estiver pendente é gravado no shutdown.
+ */
+@Component
+public class ReviewWriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewWriteBehindBuffer.class);
+
+    private final FlashcardRepository flashcardRepository;
+    private final StatsCounterService statsCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Long, ReviewUpdate> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService flushExecutor =
+        Executors.newSingleThreadExecutor(new CustomizableThreadFactory("review-flush-"));
+    private final int flushSize;
+    private volatile boolean enabled;
+
+    private final Counter receivedCounter;
+    private final Counter writtenCounter;
+    private final Timer flushTimer;
+
+    public ReviewWriteBehindBuffer(FlashcardRepository flashcardRepository,
+                                   StatsCounterService statsCounterService,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.flashcards.review-write-behind.enabled:false}") boolean enabled,
+                                   @Value("${app.flashcards.review-write-behind.flush-size:500}") int flushSize) {
+        this.flashcardRepository = flashcardRepository;
+        this.statsCounterService = statsCounterService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.flushSize = flushSize;
+
+        this.receivedCounter = Counter.builder("flashcards.review.buffer.received")
+                .description("Revisões recebidas pelo buffer")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("flashcards.review.buffer.written")
+                .description("Linhas gravadas pelo buffer após o agrupamento")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("flashcards.review.buffer.flush")
+                .description("Tempo de cada gravação em lote do buffer")
+                .register(meterRegistry);
+        Gauge.builder("flashcards.review.buffer.depth", pending, ConcurrentHashMap::size)
+                .description("Cards com revisões pendentes de gravação")
+                .register(meterRegistry);
+        Gauge.builder("flashcards.review.buffer.coalesce.ratio", this, ReviewWriteBehindBuffer::coalesceRatio)
+                .description("Revisões recebidas por linha gravada")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enfileira uma revisão; dispara a gravação assim que o buffer atinge o tamanho configurado
+     */
+    public void add(Long flashcardId, Long userId, LocalDateTime reviewedAt) {
+        pending.merge(flashcardId, new ReviewUpdate(flashcardId, userId, reviewedAt, 1), ReviewWriteBehindBuffer::coalesce);
+        receivedCounter.increment();
+
+        if (pending.size() >= flushSize && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.flashcards.review-write-behind.flush-interval:1000}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    /**
+     * Grava tudo o que está pendente, em lotes de até flush-size linhas
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            while (!pending.isEmpty()) {
+                List<ReviewUpdate> batch = drain();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // A partir daqui as revisões vão direto para o banco
+        enabled = false;
+        flushExecutor.shutdown();
+        flush();
+    }
+
+    private List<ReviewUpdate> drain() {
+        List<ReviewUpdate> batch = new ArrayList<>(Math.min(flushSize, pending.size()));
+        for (Long flashcardId : pending.keySet()) {
+            ReviewUpdate update = pending.remove(flashcardId);
+            if (update != null) {
+                batch.add(update);
+            }
+            if (batch.size() >= flushSize) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    private void write(List<ReviewUpdate> batch) {
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                Map<StatsCounterService.CounterKey, Long> firstReviews = statsCounterService.countFirstReviews(batch);
+                flashcardRepository.applyReviews(batch);
+                statsCounterService.applyFirstReviews(firstReviews);
+            }));
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            // Devolve ao buffer para a próxima tentativa, sem perder contagens
+            batch.forEach(update -> pending.merge(update.flashcardId(), update, ReviewWriteBehindBuffer::coalesce));
+            log.error("Falha ao gravar {} revisões pendentes", batch.size(), e);
+            throw e;
+        }
+    }
+
+    private double coalesceRatio() {
+        double written = writtenCounter.count();
+        return written == 0 ? 1.0 : receivedCounter.count() / written;
+    }
+
+    private static ReviewUpdate coalesce(ReviewUpdate current, ReviewUpdate incoming) {
+        LocalDateTime latest = incoming.reviewedAt().isAfter(current.reviewedAt())
+            ? incoming.reviewedAt() : current.reviewedAt();
+        return new ReviewUpdate(current.flashcardId(), current.userId(), latest, current.count() + incoming.count());
+    }
+}
@@ -0,0 +1,54 @@
+package com.saorim.flashcard.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.saorim.flashcard.repository.UserRepository;
+
+/**
+ * Recalcula periodicamente os contadores de todos os usuários para corrigir desvios
+ * (escritas fora dos serviços, falhas parciais). Cada usuário é recontado na sua própria transação.
+ */
+@Component
+public class StatsCounterReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsCounterReconciler.class);
+
+    private final UserRepository userRepository;
+    private final StatsCounterService statsCounterService;
+    private final int pageSize;
+
+    public StatsCounterReconciler(UserRepository userRepository,
+                                  StatsCounterService statsCounterService,
+                                  @Value("${app.stats.reconcile-page-size:500}") int pageSize) {
+        this.userRepository = userRepository;
+        this.statsCounterService = statsCounterService;
+        this.pageSize = pageSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.stats.reconcile-initial-delay:60000}",
+               fixedDelayString = "${app.stats.reconcile-interval:3600000}")
+    public void reconcile() {
+        long afterId = 0;
+        int users = 0;
+        List<Long> ids;
+        while (!(ids = userRepository.findIdsAfter(afterId, PageRequest.of(0, pageSize))).isEmpty()) {
+            for (Long userId : ids) {
+                try {
+                    statsCounterService.recount(userId);
+                    users++;
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao recontar os contadores do usuário {}", userId, e);
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        log.debug("Contadores reconciliados para {} usuários", users);
+    }
+}
@@ -0,0 +1,270 @@
+package com.saorim.flashcard.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.saorim.flashcard.model.CategoryCounter;
+import com.saorim.flashcard.model.UserCounter;
+import com.saorim.flashcard.repository.CategoryCount;
+import com.saorim.flashcard.repository.CategoryCounterRepository;
+import com.saorim.flashcard.repository.CategoryStatsRow;
+import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.repository.ReviewUpdate;
+import com.saorim.flashcard.repository.UserCounterRepository;
+import com.saorim.flashcard.service.FlashcardService.FlashcardStats;
+
+/**
+ * Contadores de flashcards por usuário e por categoria, atualizados na mesma transação
+ * das escritas. A linha do usuário é sempre atualizada antes da linha da categoria:
+ * é o lock dela que serializa as escritas com o {@link #recount(Long)}.
+ * Usuários ainda sem contadores são preenchidos no primeiro recount.
+ */
+@Service
+@Transactional
+public class StatsCounterService {
+
+    private final UserCounterRepository userCounterRepository;
+    private final CategoryCounterRepository categoryCounterRepository;
+    private final FlashcardRepository flashcardRepository;
+
+    public StatsCounterService(UserCounterRepository userCounterRepository,
+                               CategoryCounterRepository categoryCounterRepository,
+                               FlashcardRepository flashcardRepository) {
+        this.userCounterRepository = userCounterRepository;
+        this.categoryCounterRepository = categoryCounterRepository;
+        this.flashcardRepository = flashcardRepository;
+    }
+
+    public void flashcardAdded(Long userId, Long categoryId, boolean reviewed) {
+        adjust(userId, categoryId, 1, reviewed ? 1 : 0);
+    }
+
+    /**
+     * Vários cards novos, ainda não revisados, na mesma categoria (importação)
+     */
+    public void flashcardsAdded(Long userId, Long categoryId, long count) {
+        adjust(userId, categoryId, count, 0);
+    }
+
+    public void flashcardRemoved(Long userId, Long categoryId, boolean reviewed) {
+        adjust(userId, categoryId, -1, reviewed ? -1 : 0);
+    }
+
+    public void reviewedChanged(Long userId, Long categoryId, long delta) {
+        adjust(userId, categoryId, 0, delta);
+    }
+
+    /**
+     * Move um card entre categorias; os totais do usuário não mudam
+     */
+    public void flashcardMoved(Long userId, Long fromCategoryId, Long toCategoryId, boolean reviewed) {
+        if (Objects.equals(fromCategoryId, toCategoryId)) {
+            return;
+        }
+        long reviewedDelta = reviewed ? 1 : 0;
+        if (userCounterRepository.adjust(userId, 0, 0) > 0) {
+            if (fromCategoryId != null) {
+                categoryCounterRepository.adjust(fromCategoryId, -1, -reviewedDelta);
+            }
+            if (toCategoryId != null) {
+                categoryCounterRepository.adjust(toCategoryId, 1, reviewedDelta);
+            }
+        }
+    }
+
+    /**
+     * Cards removidos em lote, contados por categoria antes do DELETE
+     */
+    public void flashcardsRemoved(Long userId, List<CategoryCount> removed) {
+        if (userCounterRepository.adjust(userId, -total(removed), -reviewed(removed)) > 0) {
+            for (CategoryCount count : removed) {
+                if (count.categoryId() != null) {
+                    categoryCounterRepository.adjust(count.categoryId(), -count.total(), -count.reviewed());
+                }
+            }
+        }
+    }
+
+    /**
+     * Cards movidos em lote para {@code toCategoryId}, contados por categoria de origem antes do UPDATE
+     */
+    public void flashcardsMoved(Long userId, List<CategoryCount> moved, Long toCategoryId) {
+        if (userCounterRepository.adjust(userId, 0, 0) == 0) {
+            return;
+        }
+        long total = 0;
+        long reviewed = 0;
+        for (CategoryCount count : moved) {
+            if (Objects.equals(count.categoryId(), toCategoryId)) {
+                continue;
+            }
+            total += count.total();
+            reviewed += count.reviewed();
+            if (count.categoryId() != null) {
+                categoryCounterRepository.adjust(count.categoryId(), -count.total(), -count.reviewed());
+            }
+        }
+        if (toCategoryId != null && total > 0) {
+            categoryCounterRepository.adjust(toCategoryId, total, reviewed);
+        }
+    }
+
+    /**
+     * Revisões zeradas em lote: os cards revisados, contados por categoria antes do UPDATE, voltam a não revisados
+     */
+    public void reviewsReset(Long userId, List<CategoryCount> reset) {
+        if (userCounterRepository.adjust(userId, 0, -reviewed(reset)) > 0) {
+            for (CategoryCount count : reset) {
+                if (count.categoryId() != null && count.reviewed() > 0) {
+                    categoryCounterRepository.adjust(count.categoryId(), 0, -count.reviewed());
+                }
+            }
+        }
+    }
+
+    public void categoryCreated(Long userId, Long categoryId) {
+        if (userCounterRepository.adjust(userId, 0, 0) > 0) {
+            categoryCounterRepository.save(new CategoryCounter(categoryId, userId, 0, 0));
+        }
+    }
+
+    /**
+     * A categoria é removida junto com os seus cards, que saem dos totais do usuário
+     */
+    public void categoryDeleted(Long userId, Long categoryId) {
+        categoryCounterRepository.findById(categoryId).ifPresent(counter -> {
+            userCounterRepository.adjust(userId, -counter.getTotalFlashcards(), -counter.getReviewedFlashcards());
+            categoryCounterRepository.delete(counter);
+        });
+    }
+
+    public void userDeleted(Long userId) {
+        categoryCounterRepository.deleteAllByUserId(userId);
+        userCounterRepository.findById(userId).ifPresent(userCounterRepository::delete);
+    }
+
+    /**
+     * Conta, antes do UPDATE em lote, quantos cards do lote recebem a primeira revisão.
+     * O resultado vai para {@link #applyFirstReviews(Map)} depois do UPDATE, para manter a ordem dos locks.
+     */
+    @Transactional(readOnly = true)
+    public Map<CounterKey, Long> countFirstReviews(List<ReviewUpdate> updates) {
+        if (updates.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> userIds = updates.stream().map(ReviewUpdate::userId).collect(Collectors.toSet());
+        Set<Long> ids = updates.stream().map(ReviewUpdate::flashcardId).collect(Collectors.toSet());
+
+        Map<CounterKey, Long> firstReviews = new HashMap<>();
+        for (Object[] row : flashcardRepository.countUnreviewedByIds(ids)) {
+            // Cards de outros usuários não são atualizados pelo lote
+            if (userIds.contains((Long) row[0])) {
+                firstReviews.put(new CounterKey((Long) row[0], (Long) row[1]), (Long) row[2]);
+            }
+        }
+        return firstReviews;
+    }
+
+    public void applyFirstReviews(Map<CounterKey, Long> firstReviews) {
+        firstReviews.forEach((key, count) -> reviewedChanged(key.userId(), key.categoryId(), count));
+    }
+
+    /**
+     * Recalcula os contadores do usuário a partir dos cards (usado pelo reconciliador e no primeiro acesso)
+     */
+    public UserCounter recount(Long userId) {
+        // Duas primeiras leituras (ou uma leitura e um bulkOperation) chegam aqui juntas sem a linha
+        userCounterRepository.createIfMissing(userId);
+        UserCounter counter = userCounterRepository.findForUpdate(userId).orElseThrow();
+        Map<Long, CategoryCounter> existing = categoryCounterRepository.findForUpdateByUserId(userId).stream()
+            .collect(Collectors.toMap(CategoryCounter::getCategoryId, Function.identity()));
+
+        long total = 0;
+        long reviewed = 0;
+        for (CategoryStatsRow row : flashcardRepository.aggregateStatsByUserId(userId)) {
+            total += row.getTotal();
+            reviewed += row.getReviewed();
+            if (row.getCategoryId() == null) {
+                continue;
+            }
+            CategoryCounter categoryCounter = existing.remove(row.getCategoryId());
+            if (categoryCounter == null) {
+                categoryCounter = new CategoryCounter(row.getCategoryId(), userId, 0, 0);
+            }
+            categoryCounter.setTotalFlashcards(row.getTotal());
+            categoryCounter.setReviewedFlashcards(row.getReviewed());
+            categoryCounterRepository.save(categoryCounter);
+        }
+        categoryCounterRepository.deleteAll(existing.values());
+
+        counter.setTotalFlashcards(total);
+        counter.setReviewedFlashcards(reviewed);
+        return userCounterRepository.save(counter);
+    }
+
+    /**
+     * Estatísticas a partir dos contadores: busca pela chave do usuário e pelas categorias dele
+     */
+    public FlashcardStats getStats(Long userId) {
+        UserCounter counter = userCounterRepository.findById(userId).orElseGet(() -> recount(userId));
+
+        List<CategoryStatsRow> rows = new ArrayList<>(categoryCounterRepository.findStatsByUserId(userId));
+        long categorizedTotal = 0;
+        long categorizedReviewed = 0;
+        for (CategoryStatsRow row : rows) {
+            categorizedTotal += row.getTotal();
+            categorizedReviewed += row.getReviewed();
+        }
+        rows.add(new UncategorizedRow(counter.getTotalFlashcards() - categorizedTotal,
+            counter.getReviewedFlashcards() - categorizedReviewed));
+        FlashcardStats stats = FlashcardStats.from(rows);
+        // "Vencido" depende do relógio e não dá para manter por incremento; a contagem usa o índice (user_id, next_due_at)
+        stats.setDueFlashcards(flashcardRepository.countByUserIdAndNextDueAtLessThanEqual(userId, LocalDateTime.now()));
+        return stats;
+    }
+
+    private static long total(List<CategoryCount> counts) {
+        return counts.stream().mapToLong(CategoryCount::total).sum();
+    }
+
+    private static long reviewed(List<CategoryCount> counts) {
+        return counts.stream().mapToLong(CategoryCount::reviewed).sum();
+    }
+
+    private void adjust(Long userId, Long categoryId, long total, long reviewed) {
+        if (userCounterRepository.adjust(userId, total, reviewed) > 0 && categoryId != null) {
+            categoryCounterRepository.adjust(categoryId, total, reviewed);
+        }
+    }
+
+    /**
+     * Chave dos contadores afetados por um lote de revisões
+     */
+    public record CounterKey(Long userId, Long categoryId) {
+    }
+
+    private record UncategorizedRow(long total, long reviewed) implements CategoryStatsRow {
+
+        @Override
+        public Long getCategoryId() { return null; }
+
+        @Override
+        public String getCategoryName() { return null; }
+
+        @Override
+        public long getTotal() { return total; }
+
+        @Override
+        public long getReviewed() { return reviewed; }
+    }
+}
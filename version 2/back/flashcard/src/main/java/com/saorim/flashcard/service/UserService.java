@@ -7,28 +7,41 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.saorim.flashcard.exception.ResourceNotFoundException;
+import com.saorim.flashcard.model.AccountPurgeJob;
 import com.saorim.flashcard.model.User;
-import com.saorim.flashcard.repository.CategoryRepository;
-import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.repository.RefreshTokenRepository;
 import com.saorim.flashcard.repository.UserRepository;
+import com.saorim.flashcard.security.CachingUserDetailsService;
+import com.saorim.flashcard.security.TokenRevocationRegistry;
+import com.saorim.flashcard.service.FlashcardService.CategoryStats;
+import com.saorim.flashcard.service.FlashcardService.FlashcardStats;
 
 @Service
 @Transactional
 public class UserService {
 
     private final UserRepository userRepository;
-    private final CategoryRepository categoryRepository;
-    private final FlashcardRepository flashcardRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final CachingUserDetailsService userDetailsService;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final StatsCounterService statsCounterService;
+    private final AccountPurgeService accountPurgeService;
 
     public UserService(UserRepository userRepository,
-                      CategoryRepository categoryRepository,
-                      FlashcardRepository flashcardRepository,
-                      PasswordEncoder passwordEncoder) {
+                      PasswordEncoder passwordEncoder,
+                      TokenRevocationRegistry revocationRegistry,
+                      CachingUserDetailsService userDetailsService,
+                      RefreshTokenRepository refreshTokenRepository,
+                      StatsCounterService statsCounterService,
+                      AccountPurgeService accountPurgeService) {
         this.userRepository = userRepository;
-        this.categoryRepository = categoryRepository;
-        this.flashcardRepository = flashcardRepository;
         this.passwordEncoder = passwordEncoder;
+        this.revocationRegistry = revocationRegistry;
+        this.userDetailsService = userDetailsService;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.statsCounterService = statsCounterService;
+        this.accountPurgeService = accountPurgeService;
     }
 
     /**
@@ -104,6 +117,14 @@ public class UserService {
             throw new IllegalArgumentException("Email já está em uso: " + userDetails.getEmail());
         }
 
+        // Tokens carregam username e email: invalida os emitidos antes da alteração
+        if (!user.getUsername().equals(userDetails.getUsername())
+            || !user.getEmail().equals(userDetails.getEmail())) {
+            bumpTokenVersion(user);
+        }
+
+        userDetailsService.evict(user.getUsername());
+
         // Atualizar campos
         user.setUsername(userDetails.getUsername());
         user.setEmail(userDetails.getEmail());
@@ -129,7 +150,10 @@ public class UserService {
 
         // Atualizar senha
         user.setPassword(passwordEncoder.encode(newPassword));
+        bumpTokenVersion(user);
         userRepository.save(user);
+        refreshTokenRepository.revokeAllByUserId(user.getId());
+        userDetailsService.evict(user.getUsername());
     }
 
     /**
@@ -141,27 +165,28 @@ public class UserService {
     }
 
     /**
-     * Deleta usuário e todos os seus dados
+     * Desativa a conta na hora e agenda a remoção dos dados em segundo plano ({@link AccountPurgeService})
      */
-    public void deleteUser(Long id) {
+    public AccountPurgeJob deleteUser(Long id) {
         User user = getUserById(id);
         
-        // Deletar flashcards do usuário
-        flashcardRepository.deleteByUserId(id);
-        
-        // Deletar categorias do usuário
-        categoryRepository.deleteByUserId(id);
+        // Bloquear login e invalidar os tokens já emitidos (a versão persiste entre reinícios)
+        user.setDisabled(true);
+        bumpTokenVersion(user);
+        userRepository.save(user);
+        refreshTokenRepository.revokeAllByUserId(id);
+        revocationRegistry.revokeAll(id);
+        userDetailsService.evict(user.getUsername());
         
-        // Deletar usuário
-        userRepository.delete(user);
+        return accountPurgeService.schedule(id);
     }
 
     /**
      * Deleta usuário por username
      */
-    public void deleteUserByUsername(String username) {
+    public AccountPurgeJob deleteUserByUsername(String username) {
         User user = getUserByUsername(username);
-        deleteUser(user.getId());
+        return deleteUser(user.getId());
     }
 
     /**
@@ -191,22 +216,33 @@ public class UserService {
     /**
      * Obtém estatísticas do usuário
      */
-    @Transactional(readOnly = true)
     public UserStats getUserStats(String username) {
-        User user = getUserByUsername(username);
-        
-        long totalCategories = categoryRepository.findByUserId(user.getId()).size();
-        long totalFlashcards = flashcardRepository.findByUserId(user.getId()).size();
+        return getUserStats(getUserByUsername(username).getId());
+    }
+
+    public UserStats getUserStats(Long userId) {
+        User user = getUserById(userId);
+        FlashcardStats stats = statsCounterService.getStats(user.getId());
         
         return new UserStats(
             user.getId(),
             user.getUsername(),
             user.getEmail(),
-            totalCategories,
-            totalFlashcards
+            stats.getTotalCategories(),
+            stats.getTotalFlashcards(),
+            stats.getReviewedFlashcards(),
+            stats.getCategories()
         );
     }
 
+    /**
+     * Incrementa a versão de segurança, invalidando os tokens já emitidos
+     */
+    private void bumpTokenVersion(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        revocationRegistry.revokeBefore(user.getId(), user.getTokenVersion());
+    }
+
     /**
      * Classe interna para estatísticas do usuário
      */
@@ -216,13 +252,20 @@ public class UserService {
         private String email;
         private long totalCategories;
         private long totalFlashcards;
+        private long reviewedFlashcards;
+        private long unreviewedFlashcards;
+        private List<CategoryStats> categories;
 
-        public UserStats(Long userId, String username, String email, long totalCategories, long totalFlashcards) {
+        public UserStats(Long userId, String username, String email, long totalCategories, long totalFlashcards,
+                         long reviewedFlashcards, List<CategoryStats> categories) {
             this.userId = userId;
             this.username = username;
             this.email = email;
             this.totalCategories = totalCategories;
             this.totalFlashcards = totalFlashcards;
+            this.reviewedFlashcards = reviewedFlashcards;
+            this.unreviewedFlashcards = totalFlashcards - reviewedFlashcards;
+            this.categories = categories;
         }
 
         // Getters e Setters
@@ -240,5 +283,14 @@ public class UserService {
         
         public long getTotalFlashcards() { return totalFlashcards; }
         public void setTotalFlashcards(long totalFlashcards) { this.totalFlashcards = totalFlashcards; }
+        
+        public long getReviewedFlashcards() { return reviewedFlashcards; }
+        public void setReviewedFlashcards(long reviewedFlashcards) { this.reviewedFlashcards = reviewedFlashcards; }
+        
+        public long getUnreviewedFlashcards() { return unreviewedFlashcards; }
+        public void setUnreviewedFlashcards(long unreviewedFlashcards) { this.unreviewedFlashcards = unreviewedFlashcards; }
+        
+        public List<CategoryStats> getCategories() { return categories; }
+        public void setCategories(List<CategoryStats> categories) { this.categories = categories; }
     }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.saorim.flashcard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.saorim.flashcard.dto.ImportResult;
+import com.saorim.flashcard.model.Flashcard;
+import com.saorim.flashcard.model.User;
+import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.repository.UserRepository;
+import com.saorim.flashcard.service.FlashcardImportService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Mede os dois caminhos de inserção em massa: saveAll do JPA (batch do Hibernate com ids da
+ * tabela id_sequences) e a importação (batch JDBC). Roda num H2 em memória, sem rede, então
+ * serve para comparar versões, não para prever números do MySQL.
+ * Só roda quando pedido: mvn test -Dtest=InsertBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:insert-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=create",
+	"spring.jpa.show-sql=false",
+	"logging.level.com.saorim.flashcard=INFO",
+	"logging.level.org.springframework.security=INFO"
+})
+class InsertBenchmarkTest {
+
+	private static final Logger log = LoggerFactory.getLogger(InsertBenchmarkTest.class);
+
+	private static final int ROUNDS = 3;
+	private static final int TRANSACTIONS = 40;
+	private static final int ROWS_PER_TRANSACTION = 500;
+	private static final int IMPORT_ROWS = 5000;
+
+	@Autowired
+	private FlashcardRepository flashcardRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private FlashcardImportService importService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void insertThroughput() throws Exception {
+		User user = new User();
+		user.setUsername("benchmark");
+		user.setEmail("benchmark@example.com");
+		user.setPassword("x");
+		User owner = userRepository.save(user);
+
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+
+		// A primeira rodada aquece o JIT e o pool de ids
+		for (int round = 0; round <= ROUNDS; round++) {
+			statistics.clear();
+			long started = System.nanoTime();
+			for (int t = 0; t < TRANSACTIONS; t++) {
+				transaction.executeWithoutResult(status -> {
+					List<Flashcard> flashcards = new ArrayList<>(ROWS_PER_TRANSACTION);
+					for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+						Flashcard flashcard = new Flashcard();
+						flashcard.setQuestion("Pergunta " + i);
+						flashcard.setAnswer("Resposta " + i);
+						flashcard.setUser(owner);
+						flashcards.add(flashcard);
+					}
+					flashcardRepository.saveAll(flashcards);
+				});
+			}
+			long rows = (long) TRANSACTIONS * ROWS_PER_TRANSACTION;
+			long statements = statistics.getPrepareStatementCount();
+			report("saveAll", round, rows, started, " statements=" + statements);
+			// Com o batch do Hibernate, cada statement preparado grava várias linhas
+			assertThat(statements).isLessThan(rows);
+		}
+
+		StringBuilder tsv = new StringBuilder("question\tanswer\tcategory\n");
+		for (int i = 0; i < IMPORT_ROWS; i++) {
+			tsv.append("Pergunta ").append(i).append("\tResposta ").append(i).append("\tcat").append(i % 3).append('\n');
+		}
+		byte[] file = tsv.toString().getBytes(StandardCharsets.UTF_8);
+		for (int round = 0; round <= ROUNDS; round++) {
+			long started = System.nanoTime();
+			ImportResult result = importService.importFlashcards(new ByteArrayInputStream(file), "tsv", null, owner.getId());
+			report("import", round, result.getImported(), started, "");
+			assertThat(result.getImported()).isEqualTo(IMPORT_ROWS);
+			assertThat(result.getFailed()).isZero();
+		}
+	}
+
+	private static void report(String path, int round, long rows, long started, String extra) {
+		long ms = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+		log.info("benchmark {} round={}{} rows={} ms={} rows/s={}{}",
+			path, round, round == 0 ? " (aquecimento)" : "", rows, ms, rows * 1000 / ms, extra);
+	}
+}
@@ -0,0 +1,41 @@
+package com.saorim.flashcard.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class ReviewUpdateTest {
+
+	private static ReviewUpdate review(int grade) {
+		return new ReviewUpdate(1L, 1L, LocalDateTime.now(), 1, grade);
+	}
+
+	@Test
+	void easeDeltaFollowsSm2() {
+		assertThat(review(5).easeDelta()).isCloseTo(0.1, within(1e-9));
+		assertThat(review(4).easeDelta()).isCloseTo(0.0, within(1e-9));
+		assertThat(review(3).easeDelta()).isCloseTo(-0.14, within(1e-9));
+		assertThat(review(2).easeDelta()).isCloseTo(-0.32, within(1e-9));
+		assertThat(review(1).easeDelta()).isCloseTo(-0.54, within(1e-9));
+		assertThat(review(0).easeDelta()).isCloseTo(-0.8, within(1e-9));
+	}
+
+	@Test
+	void gradesBelowThreeFail() {
+		assertThat(review(3).passed()).isTrue();
+		assertThat(review(5).passed()).isTrue();
+		assertThat(review(2).passed()).isFalse();
+		assertThat(review(0).passed()).isFalse();
+	}
+
+	@Test
+	void reviewWithoutGradeUsesDefault() {
+		ReviewUpdate review = new ReviewUpdate(1L, 1L, LocalDateTime.now(), 3);
+		assertThat(review.grade()).isEqualTo(ReviewUpdate.DEFAULT_GRADE);
+		assertThat(review.passed()).isTrue();
+		assertThat(review.easeDelta()).isCloseTo(0.0, within(1e-9));
+	}
+}
@@ -0,0 +1,108 @@
+package com.saorim.flashcard.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Executa o {@link FlashcardRepository#SM2_REVIEW_SET} num H2 em modo MySQL e confere a agenda resultante
+ */
+class Sm2ReviewSetTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 10, 9, 0);
+
+	private NamedParameterJdbcTemplate jdbc;
+
+	@BeforeEach
+	void createTable() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+			"jdbc:h2:mem:sm2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		jdbc = new NamedParameterJdbcTemplate(dataSource);
+		jdbc.getJdbcTemplate().execute("DROP TABLE IF EXISTS flashcards");
+		jdbc.getJdbcTemplate().execute("CREATE TABLE flashcards (id BIGINT PRIMARY KEY, last_reviewed TIMESTAMP, " +
+			"review_count INT, next_due_at TIMESTAMP, ease_factor DOUBLE, interval_days INT, repetitions INT)");
+		jdbc.getJdbcTemplate().update("INSERT INTO flashcards VALUES (1, NULL, 0, NULL, 2.5, 0, 0)");
+	}
+
+	private Map<String, Object> review(int grade, LocalDateTime reviewedAt) {
+		ReviewUpdate review = new ReviewUpdate(1L, 1L, reviewedAt, 1, grade);
+		jdbc.update("UPDATE flashcards SET " + FlashcardRepository.SM2_REVIEW_SET + " WHERE id = 1",
+			new MapSqlParameterSource()
+				.addValue("passed", review.passed() ? 1 : 0)
+				.addValue("reviewedAt", review.reviewedAt())
+				.addValue("easeDelta", review.easeDelta())
+				.addValue("count", review.count()));
+		return jdbc.getJdbcTemplate().queryForMap("SELECT * FROM flashcards WHERE id = 1");
+	}
+
+	private static LocalDateTime timestamp(Object value) {
+		return ((Timestamp) value).toLocalDateTime();
+	}
+
+	@Test
+	void passingReviewsGrowTheInterval() {
+		Map<String, Object> card = review(4, T0);
+		assertThat(card.get("interval_days")).isEqualTo(1);
+		assertThat(card.get("repetitions")).isEqualTo(1);
+		assertThat(card.get("ease_factor")).isEqualTo(2.5);
+		assertThat(timestamp(card.get("next_due_at"))).isEqualTo(T0.plusDays(1));
+
+		card = review(5, T0.plusDays(1));
+		assertThat(card.get("interval_days")).isEqualTo(6);
+		assertThat(card.get("repetitions")).isEqualTo(2);
+		assertThat(card.get("ease_factor")).isEqualTo(2.6);
+		assertThat(timestamp(card.get("next_due_at"))).isEqualTo(T0.plusDays(7));
+
+		// Terceira em diante: intervalo anterior vezes o fator de antes da revisão (6 * 2.6 = 15.6)
+		card = review(4, T0.plusDays(7));
+		assertThat(card.get("interval_days")).isEqualTo(16);
+		assertThat(card.get("repetitions")).isEqualTo(3);
+		assertThat(timestamp(card.get("next_due_at"))).isEqualTo(T0.plusDays(23));
+		assertThat(card.get("review_count")).isEqualTo(3);
+	}
+
+	@Test
+	void failedReviewRestartsTheSequence() {
+		review(5, T0);
+		review(5, T0.plusDays(1));
+		Map<String, Object> card = review(1, T0.plusDays(7));
+		assertThat(card.get("interval_days")).isEqualTo(1);
+		assertThat(card.get("repetitions")).isEqualTo(0);
+		assertThat(card.get("ease_factor")).isEqualTo(2.16);
+		assertThat(timestamp(card.get("next_due_at"))).isEqualTo(T0.plusDays(8));
+
+		// Depois da falha a sequência recomeça em 1 e 6 dias
+		card = review(4, T0.plusDays(8));
+		assertThat(card.get("interval_days")).isEqualTo(1);
+		card = review(4, T0.plusDays(9));
+		assertThat(card.get("interval_days")).isEqualTo(6);
+	}
+
+	@Test
+	void easeFactorNeverDropsBelowMinimum() {
+		Map<String, Object> card = null;
+		for (int i = 0; i < 5; i++) {
+			card = review(0, T0.plusDays(i));
+		}
+		assertThat(card.get("ease_factor")).isEqualTo(1.3);
+		assertThat(card.get("interval_days")).isEqualTo(1);
+	}
+
+	@Test
+	void lateReviewDoesNotMoveLastReviewedBack() {
+		review(4, T0.plusDays(3));
+		Map<String, Object> card = review(4, T0);
+		assertThat(timestamp(card.get("last_reviewed"))).isEqualTo(T0.plusDays(3));
+		// A agenda parte da revisão mais recente
+		assertThat(timestamp(card.get("next_due_at"))).isEqualTo(T0.plusDays(9));
+		assertThat(card.get("review_count")).isEqualTo(2);
+	}
+}
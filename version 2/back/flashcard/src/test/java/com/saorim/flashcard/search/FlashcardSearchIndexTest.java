@@ -0,0 +1,150 @@
+package com.saorim.flashcard.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.saorim.flashcard.model.Flashcard;
+import com.saorim.flashcard.model.User;
+import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.repository.SearchIndexVersionRepository;
+import com.saorim.flashcard.search.FlashcardSearchIndex.SearchMatch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FlashcardSearchIndexTest {
+
+	private static final Long USER_ID = 7L;
+
+	@TempDir
+	Path indexDir;
+
+	private FlashcardRepository flashcardRepository;
+	private SearchIndexVersionRepository versionRepository;
+
+	@BeforeEach
+	void setUp() {
+		flashcardRepository = mock(FlashcardRepository.class);
+		versionRepository = mock(SearchIndexVersionRepository.class);
+		when(flashcardRepository.countByUserId(USER_ID)).thenReturn(1L);
+		when(flashcardRepository.findMaxIdByUserId(USER_ID)).thenReturn(1L);
+	}
+
+	@Test
+	void reusesTheFileWhileTheVersionMatches() {
+		deck(3, "gato", "cat");
+		FlashcardSearchIndex first = newIndex();
+		assertThat(ids(first.search(USER_ID, "gato", 0, 10))).containsExactly(1L);
+		first.flush();
+
+		// Outro processo, mesmo diretório: o arquivo está na versão do banco e é reaproveitado
+		FlashcardSearchIndex restarted = newIndex();
+		assertThat(ids(restarted.search(USER_ID, "gato", 0, 10))).containsExactly(1L);
+		verify(flashcardRepository, times(1)).streamTextByUserId(USER_ID);
+	}
+
+	@Test
+	void rebuildsAFileBehindTheDatabaseVersion() {
+		deck(3, "gato", "cat");
+		FlashcardSearchIndex first = newIndex();
+		first.search(USER_ID, "gato", 0, 10);
+		first.flush();
+
+		// Mesmo número de cards e mesmo maior id, mas o texto mudou em outro nó
+		deck(4, "passaro", "bird");
+		FlashcardSearchIndex restarted = newIndex();
+
+		assertThat(restarted.search(USER_ID, "gato", 0, 10)).isEmpty();
+		assertThat(ids(restarted.search(USER_ID, "passaro", 0, 10))).containsExactly(1L);
+		verify(flashcardRepository, times(2)).streamTextByUserId(USER_ID);
+	}
+
+	@Test
+	void rebuildsTheIndexInMemoryWhenAnotherNodeBumpsTheVersion() {
+		deck(3, "gato", "cat");
+		FlashcardSearchIndex index = newIndex();
+		index.search(USER_ID, "gato", 0, 10);
+
+		deck(4, "peixe", "fish");
+
+		assertThat(ids(index.search(USER_ID, "peixe", 0, 10))).containsExactly(1L);
+	}
+
+	@Test
+	void appliesLocalChangesWithoutRebuilding() {
+		deck(3, "gato", "cat");
+		FlashcardSearchIndex index = newIndex();
+		index.search(USER_ID, "gato", 0, 10);
+
+		when(versionRepository.findContentVersion(USER_ID)).thenReturn(Optional.of(4L));
+		index.put(flashcard(1L, "tigre", "tiger"));
+
+		assertThat(ids(index.search(USER_ID, "tigre", 0, 10))).containsExactly(1L);
+		verify(versionRepository).increment(USER_ID);
+		verify(flashcardRepository, times(1)).streamTextByUserId(USER_ID);
+	}
+
+	@Test
+	void dropsTheIndexWhenALocalChangeSkipsAVersion() {
+		deck(3, "gato", "cat");
+		FlashcardSearchIndex index = newIndex();
+		index.search(USER_ID, "gato", 0, 10);
+
+		// A versão 4 veio de outro nó; a alteração local recebe a 5
+		deck(5, "tigre", "tiger");
+		index.put(flashcard(1L, "tigre", "tiger"));
+
+		assertThat(ids(index.search(USER_ID, "tigre", 0, 10))).containsExactly(1L);
+		verify(flashcardRepository, times(2)).streamTextByUserId(USER_ID);
+	}
+
+	@Test
+	void searchWithOnlyStopWordsSkipsTheDatabase() {
+		FlashcardSearchIndex index = newIndex();
+
+		assertThat(index.search(USER_ID, "de da do", 0, 10)).isEmpty();
+		verify(versionRepository, never()).findContentVersion(USER_ID);
+	}
+
+	private FlashcardSearchIndex newIndex() {
+		return new FlashcardSearchIndex(flashcardRepository, versionRepository, mock(PlatformTransactionManager.class),
+			new SimpleMeterRegistry(), indexDir, 10);
+	}
+
+	/**
+	 * O banco passa a ter um único card (id 1) com o texto informado, na versão informada
+	 */
+	private void deck(long version, String question, String answer) {
+		when(versionRepository.findContentVersion(USER_ID)).thenReturn(Optional.of(version));
+		when(flashcardRepository.streamTextByUserId(USER_ID))
+			.thenAnswer(invocation -> Stream.<Object[]>of(new Object[] { 1L, question, answer }));
+	}
+
+	private static Flashcard flashcard(Long id, String question, String answer) {
+		User user = new User();
+		user.setId(USER_ID);
+		Flashcard flashcard = new Flashcard();
+		flashcard.setId(id);
+		flashcard.setQuestion(question);
+		flashcard.setAnswer(answer);
+		flashcard.setUser(user);
+		return flashcard;
+	}
+
+	private static Stream<Long> ids(List<SearchMatch> matches) {
+		return matches.stream().map(SearchMatch::flashcardId);
+	}
+}
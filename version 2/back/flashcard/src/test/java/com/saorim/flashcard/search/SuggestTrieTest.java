@@ -0,0 +1,101 @@
+package com.saorim.flashcard.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.saorim.flashcard.dto.Suggestion;
+
+class SuggestTrieTest {
+
+	private final SuggestTrie trie = new SuggestTrie();
+
+	private List<String> complete(String prefix) {
+		return trie.complete(prefix, 10).stream().map(Suggestion::getText).toList();
+	}
+
+	@Test
+	void prefixThatMatchesNothingReturnsEmpty() {
+		trie.add(Suggestion.question("Capital da França"));
+
+		assertThat(complete("xyz")).isEmpty();
+		// Diverge no meio de uma aresta compactada
+		assertThat(complete("capa")).isEmpty();
+		// Mais longo que qualquer chave
+		assertThat(complete("capital da franca e")).isEmpty();
+		assertThat(complete("")).isEmpty();
+		assertThat(complete("  ?! ")).isEmpty();
+		assertThat(complete("capital")).containsExactly("Capital da França");
+	}
+
+	@Test
+	void removalMergesTheRemainingEdge() {
+		trie.add(Suggestion.question("carro"));
+		trie.add(Suggestion.question("casa"));
+		trie.add(Suggestion.question("caso"));
+		// ca -> {rro, s -> {a, o}}
+		assertThat(trie.nodeCount()).isEqualTo(5);
+
+		trie.remove(Suggestion.question("caso"));
+		// s e a voltam a ser uma aresta só: ca -> {rro, sa}
+		assertThat(trie.nodeCount()).isEqualTo(3);
+		assertThat(complete("cas")).containsExactly("casa");
+		assertThat(complete("caso")).isEmpty();
+
+		trie.remove(Suggestion.question("casa"));
+		// ca fica com um filho e se junta a ele
+		assertThat(trie.nodeCount()).isEqualTo(1);
+		assertThat(complete("c")).containsExactly("carro");
+
+		trie.remove(Suggestion.question("carro"));
+		assertThat(trie.nodeCount()).isZero();
+	}
+
+	@Test
+	void removingAPrefixKeyKeepsItsExtensions() {
+		trie.add(Suggestion.question("casa"));
+		trie.add(Suggestion.question("casaco"));
+
+		trie.remove(Suggestion.question("casa"));
+
+		assertThat(trie.nodeCount()).isEqualTo(1);
+		assertThat(complete("cas")).containsExactly("casaco");
+	}
+
+	@Test
+	void duplicateTitlesAreCountedByReference() {
+		trie.add(Suggestion.question("casa"));
+		trie.add(Suggestion.question("casa"));
+
+		trie.remove(Suggestion.question("casa"));
+		assertThat(complete("casa")).containsExactly("casa");
+
+		trie.remove(Suggestion.question("casa"));
+		assertThat(complete("casa")).isEmpty();
+	}
+
+	@Test
+	void accentedPrefixMatchesUnaccentedKeys() {
+		trie.add(Suggestion.question("Capital da França"));
+		trie.add(Suggestion.question("São Paulo"));
+		trie.add(Suggestion.category("Ação"));
+
+		assertThat(complete("FRANÇ")).containsExactly("Capital da França");
+		assertThat(complete("franc")).containsExactly("Capital da França");
+		assertThat(complete("são")).containsExactly("São Paulo");
+		assertThat(complete("sao p")).containsExactly("São Paulo");
+		assertThat(complete("acã")).containsExactly("Ação");
+	}
+
+	@Test
+	void shorterKeysComeFirst() {
+		trie.add(Suggestion.question("gato preto"));
+		trie.add(Suggestion.question("gato"));
+		trie.add(Suggestion.question("gatos e cães"));
+
+		assertThat(complete("gat")).containsExactly("gato", "gato preto", "gatos e cães");
+		assertThat(trie.complete("gat", 2)).hasSize(2);
+	}
+}
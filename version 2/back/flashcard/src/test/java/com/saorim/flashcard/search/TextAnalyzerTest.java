@@ -0,0 +1,83 @@
+package com.saorim.flashcard.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TextAnalyzerTest {
+
+	@Test
+	void foldsCaseAndAccents() {
+		assertThat(TextAnalyzer.terms("Revisão ÁRVORE")).containsExactly("revisao", "arvor");
+		// Acento já decomposto (NFD) dá o mesmo termo
+		assertThat(TextAnalyzer.terms("revisão")).containsExactly("revisao");
+	}
+
+	@Test
+	void dropsStopWords() {
+		assertThat(TextAnalyzer.terms("o gato e a casa de pedra")).containsExactly("gato", "casa", "pedra");
+		assertThat(TextAnalyzer.terms("the cat and the dog")).containsExactly("cat", "dog");
+		assertThat(TextAnalyzer.terms("de da do")).isEmpty();
+	}
+
+	@Test
+	void singularAndPluralGiveTheSameTerm() {
+		List<String[]> pairs = List.of(
+			new String[] { "lição", "lições" },
+			new String[] { "pão", "pães" },
+			new String[] { "papel", "papéis" },
+			new String[] { "homem", "homens" },
+			new String[] { "flor", "flores" },
+			new String[] { "vez", "vezes" },
+			new String[] { "mês", "meses" },
+			new String[] { "case", "cases" },
+			new String[] { "page", "pages" },
+			new String[] { "card", "cards" },
+			new String[] { "study", "studies" });
+		for (String[] pair : pairs) {
+			assertThat(TextAnalyzer.terms(pair[1])).as(pair[1]).isEqualTo(TextAnalyzer.terms(pair[0]));
+		}
+	}
+
+	@Test
+	void stemsToExpectedTerms() {
+		assertThat(TextAnalyzer.stem("licoes")).isEqualTo("licao");
+		assertThat(TextAnalyzer.stem("papeis")).isEqualTo("papel");
+		assertThat(TextAnalyzer.stem("flores")).isEqualTo("flor");
+		assertThat(TextAnalyzer.stem("studies")).isEqualTo("study");
+		assertThat(TextAnalyzer.stem("cases")).isEqualTo("cas");
+		assertThat(TextAnalyzer.stem("case")).isEqualTo("cas");
+		// Palavras que terminam em s no singular ficam como estão
+		assertThat(TextAnalyzer.stem("lapis")).isEqualTo("lapis");
+		assertThat(TextAnalyzer.stem("onibus")).isEqualTo("onibus");
+		assertThat(TextAnalyzer.stem("class")).isEqualTo("class");
+		assertThat(TextAnalyzer.stem("mes")).isEqualTo("mes");
+	}
+
+	@Test
+	void tokensKeepTheOriginalOffsets() {
+		String text = "Olá, mundos!";
+		List<TextAnalyzer.Token> tokens = TextAnalyzer.tokens(text);
+		assertThat(tokens).extracting(TextAnalyzer.Token::term).containsExactly("ola", "mundo");
+		assertThat(text.substring(tokens.get(1).start(), tokens.get(1).end())).isEqualTo("mundos");
+	}
+
+	@Test
+	void normalizeKeepsWordsWithoutStemming() {
+		assertThat(TextAnalyzer.normalize("  Lições,  de   REVISÃO ")).isEqualTo("licoes de revisao");
+	}
+
+	@Test
+	void highlightEscapesHtmlAndMarksMatches() {
+		String highlighted = TextAnalyzer.highlight("<b>Revisões</b> & mais", TextAnalyzer.terms("revisao"));
+		assertThat(highlighted).isEqualTo("&lt;b&gt;<mark>Revisões</mark>&lt;/b&gt; &amp; mais");
+	}
+
+	@Test
+	void highlightWithoutMatchesOnlyEscapes() {
+		assertThat(TextAnalyzer.highlight("a < b", TextAnalyzer.terms("gato"))).isEqualTo("a &lt; b");
+		assertThat(TextAnalyzer.highlight(null, TextAnalyzer.terms("gato"))).isNull();
+	}
+}
@@ -0,0 +1,99 @@
+package com.saorim.flashcard.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.saorim.flashcard.search.FlashcardSearchIndex.SearchMatch;
+
+class UserIndexTest {
+
+	@Test
+	void questionMatchesOutrankAnswerMatches() {
+		UserIndex index = new UserIndex(0);
+		index.add(1, "Capital da Itália", "Roma");
+		index.add(2, "Cidade eterna", "Roma é a capital");
+		index.add(3, "Maior rio", "Amazonas");
+
+		List<SearchMatch> matches = index.search(TextAnalyzer.terms("capital"), 0, 10);
+
+		assertThat(matches).extracting(SearchMatch::flashcardId).containsExactly(1L, 2L);
+		assertThat(matches.get(0).score()).isGreaterThan(matches.get(1).score());
+	}
+
+	@Test
+	void rareTermsWeighMoreAndCardsMatchingMoreTermsComeFirst() {
+		UserIndex index = new UserIndex(0);
+		index.add(1, "verbo comum", "x");
+		index.add(2, "verbo raro", "x");
+		index.add(3, "verbo comum", "y");
+
+		List<SearchMatch> matches = index.search(TextAnalyzer.terms("verbo raro"), 0, 10);
+
+		assertThat(matches).extracting(SearchMatch::flashcardId).containsExactly(2L, 1L, 3L);
+		// Mesmo texto, mesma nota: o desempate é pelo id
+		assertThat(matches.get(1).score()).isEqualTo(matches.get(2).score());
+	}
+
+	@Test
+	void searchPagesByOffsetAndLimit() {
+		UserIndex index = new UserIndex(0);
+		for (long id = 1; id <= 5; id++) {
+			index.add(id, "pergunta", "resposta");
+		}
+
+		assertThat(index.search(TextAnalyzer.terms("pergunta"), 2, 2))
+			.extracting(SearchMatch::flashcardId).containsExactly(3L, 4L);
+	}
+
+	@Test
+	void appliesOnlyTheNextVersion() {
+		UserIndex index = new UserIndex(3);
+		index.add(1, "gato", "cat");
+
+		assertThat(index.put(5, 1, "peixe", "fish")).isFalse();
+		assertThat(index.contentVersion()).isEqualTo(3);
+		assertThat(index.search(TextAnalyzer.terms("peixe"), 0, 10)).isEmpty();
+
+		assertThat(index.put(4, 1, "peixe", "fish")).isTrue();
+		assertThat(index.remove(5, 1)).isTrue();
+		assertThat(index.remove(5, 1)).isFalse();
+		assertThat(index.contentVersion()).isEqualTo(5);
+		assertThat(index.size()).isZero();
+	}
+
+	@Test
+	void removingTheLargestIdRecomputesMaxId() {
+		UserIndex index = new UserIndex(0);
+		index.add(7, "a", "b");
+		index.add(9, "c", "d");
+
+		index.remove(1, 9);
+
+		assertThat(index.maxId()).isEqualTo(7);
+	}
+
+	@Test
+	void roundTripKeepsDocumentsAndVersion() throws IOException {
+		UserIndex index = new UserIndex(12);
+		index.add(1, "Capital da França", "Paris");
+		index.add(2, "Capital da Itália", "Roma");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		index.writeTo(new DataOutputStream(bytes));
+
+		UserIndex read = UserIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		assertThat(read.contentVersion()).isEqualTo(12);
+		assertThat(read.size()).isEqualTo(2);
+		assertThat(read.maxId()).isEqualTo(2);
+		assertThat(read.search(TextAnalyzer.terms("paris"), 0, 10))
+			.isEqualTo(index.search(TextAnalyzer.terms("paris"), 0, 10));
+	}
+}
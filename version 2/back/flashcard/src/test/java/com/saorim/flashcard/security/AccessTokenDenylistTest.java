@@ -0,0 +1,53 @@
+package com.saorim.flashcard.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+class AccessTokenDenylistTest {
+
+	private static final long MINUTE = 60_000L;
+
+	private final AccessTokenDenylist denylist = new AccessTokenDenylist(1024);
+
+	@Test
+	void revokedTokenStaysRevokedUntilItExpires() {
+		Date expiresAt = new Date(System.currentTimeMillis() + 10 * MINUTE);
+		denylist.revoke("a", expiresAt);
+
+		assertThat(denylist.isRevoked("a", expiresAt)).isTrue();
+		assertThat(denylist.isRevoked("b", expiresAt)).isFalse();
+		// O mesmo jti com outra expiração é outro token
+		assertThat(denylist.isRevoked("a", new Date(expiresAt.getTime() + 5 * MINUTE))).isFalse();
+
+		denylist.prune(System.currentTimeMillis());
+		assertThat(denylist.isRevoked("a", expiresAt)).isTrue();
+	}
+
+	@Test
+	void pruneDropsOnlyExpiredBuckets() {
+		long now = System.currentTimeMillis();
+		Date soon = new Date(now + 2 * MINUTE);
+		Date later = new Date(now + 30 * MINUTE);
+		denylist.revoke("soon", soon);
+		denylist.revoke("later", later);
+		assertThat(denylist.bucketCount()).isEqualTo(2);
+
+		denylist.prune(now + 5 * MINUTE);
+
+		assertThat(denylist.bucketCount()).isEqualTo(1);
+		assertThat(denylist.isRevoked("soon", soon)).isFalse();
+		assertThat(denylist.isRevoked("later", later)).isTrue();
+	}
+
+	@Test
+	void expiredTokenIsNotStored() {
+		denylist.revoke("old", new Date(System.currentTimeMillis() - MINUTE));
+		denylist.revoke(null, new Date(System.currentTimeMillis() + MINUTE));
+		denylist.revoke("noexp", null);
+
+		assertThat(denylist.bucketCount()).isZero();
+	}
+}
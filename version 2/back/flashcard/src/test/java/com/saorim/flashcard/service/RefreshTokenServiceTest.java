@@ -0,0 +1,121 @@
+package com.saorim.flashcard.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import com.saorim.flashcard.model.RefreshToken;
+import com.saorim.flashcard.model.User;
+import com.saorim.flashcard.repository.RefreshTokenRepository;
+import com.saorim.flashcard.repository.UserRepository;
+
+class RefreshTokenServiceTest {
+
+	private static final Long USER_ID = 3L;
+
+	// Tabela refresh_tokens em memória, indexada pelo hash
+	private final Map<String, RefreshToken> tokens = new HashMap<>();
+
+	private RefreshTokenRepository refreshTokenRepository;
+	private RefreshTokenService service;
+
+	@BeforeEach
+	void setUp() {
+		User user = new User();
+		user.setId(USER_ID);
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.getReferenceById(USER_ID)).thenReturn(user);
+
+		refreshTokenRepository = mock(RefreshTokenRepository.class);
+		when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+			RefreshToken token = invocation.getArgument(0);
+			tokens.put(token.getTokenHash(), token);
+			return token;
+		});
+		when(refreshTokenRepository.findByTokenHash(anyString()))
+			.thenAnswer(invocation -> Optional.ofNullable(tokens.get(invocation.<String>getArgument(0))));
+		when(refreshTokenRepository.claim(anyString())).thenAnswer(invocation -> {
+			RefreshToken token = tokens.get(invocation.<String>getArgument(0));
+			if (token == null || token.isRevoked()) {
+				return 0;
+			}
+			token.setRevoked(true);
+			return 1;
+		});
+		when(refreshTokenRepository.revokeAllByUserId(anyLong())).thenAnswer(invocation -> {
+			tokens.values().forEach(token -> token.setRevoked(true));
+			return tokens.size();
+		});
+
+		service = new RefreshTokenService(refreshTokenRepository, userRepository, 60_000L);
+	}
+
+	@Test
+	void rotationIssuesANewTokenAndRetiresTheOldOne() {
+		String first = service.issue(USER_ID);
+
+		RefreshTokenService.Rotation rotation = service.rotate(first);
+
+		assertThat(rotation.user().getId()).isEqualTo(USER_ID);
+		assertThat(rotation.refreshToken()).isNotEqualTo(first);
+		assertThat(tokens).hasSize(2);
+		// Só o hash é guardado
+		assertThat(tokens).doesNotContainKey(first).doesNotContainKey(rotation.refreshToken());
+		assertThat(service.rotate(rotation.refreshToken()).refreshToken()).isNotEqualTo(rotation.refreshToken());
+		verify(refreshTokenRepository, never()).revokeAllByUserId(anyLong());
+	}
+
+	@Test
+	void replayedTokenRevokesTheWholeFamily() {
+		String first = service.issue(USER_ID);
+		String second = service.rotate(first).refreshToken();
+		String third = service.rotate(second).refreshToken();
+
+		assertThatThrownBy(() -> service.rotate(first))
+			.isInstanceOf(BadCredentialsException.class)
+			.hasMessageContaining("já utilizado");
+		verify(refreshTokenRepository).revokeAllByUserId(USER_ID);
+
+		// O token mais recente, ainda não usado, também deixa de valer
+		assertThat(tokens.values()).allMatch(RefreshToken::isRevoked);
+		assertThatThrownBy(() -> service.rotate(third)).isInstanceOf(BadCredentialsException.class);
+	}
+
+	@Test
+	void losingTheClaimRaceCountsAsReuse() {
+		String first = service.issue(USER_ID);
+		when(refreshTokenRepository.claim(anyString())).thenReturn(0);
+
+		assertThatThrownBy(() -> service.rotate(first)).isInstanceOf(BadCredentialsException.class);
+		verify(refreshTokenRepository).revokeAllByUserId(USER_ID);
+	}
+
+	@Test
+	void expiredOrUnknownTokenIsRejectedWithoutRevokingTheFamily() {
+		String first = service.issue(USER_ID);
+		tokens.values().forEach(token -> token.setExpiresAt(LocalDateTime.now().minusMinutes(1)));
+
+		assertThatThrownBy(() -> service.rotate(first))
+			.isInstanceOf(BadCredentialsException.class)
+			.hasMessageContaining("expirado");
+		assertThatThrownBy(() -> service.rotate("desconhecido"))
+			.isInstanceOf(BadCredentialsException.class)
+			.hasMessageContaining("inválido");
+		verify(refreshTokenRepository, never()).revokeAllByUserId(anyLong());
+	}
+}
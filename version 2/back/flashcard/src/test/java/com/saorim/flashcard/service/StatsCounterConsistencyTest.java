@@ -0,0 +1,239 @@
+package com.saorim.flashcard.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.saorim.flashcard.dto.BulkOperationRequest;
+import com.saorim.flashcard.dto.BulkOperationRequest.Operation;
+import com.saorim.flashcard.dto.ImportResult;
+import com.saorim.flashcard.dto.ReviewItem;
+import com.saorim.flashcard.model.Category;
+import com.saorim.flashcard.model.Flashcard;
+import com.saorim.flashcard.model.User;
+import com.saorim.flashcard.repository.FlashcardRepository;
+import com.saorim.flashcard.repository.UserRepository;
+import com.saorim.flashcard.service.FlashcardService.CategoryStats;
+import com.saorim.flashcard.service.FlashcardService.FlashcardStats;
+
+/**
+ * Confere, depois de cada escrita, que os contadores mantidos por incremento batem com
+ * a contagem feita direto nos cards
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:stats-counters;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=create",
+	"spring.jpa.show-sql=false",
+	"logging.level.com.saorim.flashcard=INFO",
+	"logging.level.org.springframework.security=INFO"
+})
+class StatsCounterConsistencyTest {
+
+	private static final AtomicInteger USERS = new AtomicInteger();
+
+	@Autowired
+	private FlashcardService flashcardService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private FlashcardImportService importService;
+
+	@Autowired
+	private StatsCounterService statsCounterService;
+
+	@Autowired
+	private FlashcardRepository flashcardRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private Long userId;
+	private Category first;
+	private Category second;
+
+	@BeforeEach
+	void setUp() {
+		int n = USERS.incrementAndGet();
+		User user = new User();
+		user.setUsername("counters" + n);
+		user.setEmail("counters" + n + "@example.com");
+		user.setPassword("x");
+		userId = userRepository.save(user).getId();
+		// O primeiro acesso cria as linhas dos contadores
+		statsCounterService.recount(userId);
+		first = category("Primeira");
+		second = category("Segunda");
+	}
+
+	@Test
+	void createDeleteMoveAndReview() {
+		Flashcard a = card("a", first);
+		Flashcard b = card("b", first);
+		Flashcard c = card("c", null);
+		assertCountersMatchCards();
+
+		flashcardService.updateReviewStatus(a.getId(), userId, 4);
+		assertCountersMatchCards();
+		// Segunda revisão não muda os revisados
+		flashcardService.updateReviewStatus(a.getId(), userId, 2);
+		flashcardService.updateReviewStatus(c.getId(), userId, 5);
+		assertCountersMatchCards();
+
+		flashcardService.updateFlashcard(a.getId(), details("a", second), userId);
+		assertCountersMatchCards();
+
+		ReviewItem again = new ReviewItem();
+		again.setId(a.getId());
+		ReviewItem firstTime = new ReviewItem();
+		firstTime.setId(b.getId());
+		firstTime.setGrade(3);
+		flashcardService.recordReviews(List.of(again, firstTime), userId);
+		assertCountersMatchCards();
+
+		flashcardService.resetFlashcardReviewStatus(b.getId(), userId);
+		assertCountersMatchCards();
+
+		flashcardService.deleteFlashcard(a.getId(), userId);
+		flashcardService.deleteFlashcard(c.getId(), userId);
+		assertCountersMatchCards();
+	}
+
+	@Test
+	void importAndCategoryDelete() throws Exception {
+		card("x", first);
+		String tsv = "question\tanswer\tcategory\n" +
+			"p1\tr1\tPrimeira\n" +
+			"p2\tr2\tNova\n" +
+			"p3\tr3\tNova\n" +
+			"p4\tr4\t\n";
+		ImportResult result = importService.importFlashcards(
+			new ByteArrayInputStream(tsv.getBytes(StandardCharsets.UTF_8)), "tsv", null, userId);
+		assertThat(result.getImported()).isEqualTo(4);
+		assertCountersMatchCards();
+
+		flashcardService.updateReviewStatus(flashcardRepository.findByUserId(userId).get(0).getId(), userId, 4);
+		categoryService.deleteCategory(first.getId(), userId);
+		assertCountersMatchCards();
+	}
+
+	@Test
+	void bulkOperationsApplyDeltas() {
+		for (int i = 0; i < 6; i++) {
+			Flashcard card = card("f" + i, i % 2 == 0 ? first : null);
+			if (i < 3) {
+				flashcardService.updateReviewStatus(card.getId(), userId, 4);
+			}
+		}
+		Flashcard moved = card("g", second);
+		assertCountersMatchCards();
+
+		bulk(Operation.MOVE, null, filter(first.getId(), false, null), second.getId());
+		assertCountersMatchCards();
+
+		// Lista mutável, como a que vem do JSON
+		bulk(Operation.MOVE, Arrays.asList(moved.getId()), null, null);
+		assertCountersMatchCards();
+
+		bulk(Operation.RESET_REVIEW, null, filter(null, false, true), null);
+		assertCountersMatchCards();
+
+		flashcardService.updateReviewStatus(moved.getId(), userId, 5);
+		bulk(Operation.DELETE, null, filter(null, true, null), null);
+		assertCountersMatchCards();
+
+		bulk(Operation.DELETE, null, filter(second.getId(), false, null), null);
+		assertCountersMatchCards();
+	}
+
+	@Test
+	void recountRepairsDriftedCounters() {
+		Flashcard a = card("a", first);
+		card("b", null);
+		flashcardService.updateReviewStatus(a.getId(), userId, 4);
+		FlashcardStats before = statsCounterService.getStats(userId);
+
+		// Simula contadores que se afastaram dos cards
+		statsCounterService.flashcardsAdded(userId, first.getId(), 5);
+		statsCounterService.reviewedChanged(userId, null, 2);
+		assertThat(statsCounterService.getStats(userId).getTotalFlashcards()).isEqualTo(before.getTotalFlashcards() + 5);
+
+		statsCounterService.recount(userId);
+		assertCountersMatchCards();
+		assertThat(byCategory(statsCounterService.getStats(userId))).isEqualTo(byCategory(before));
+	}
+
+	private void assertCountersMatchCards() {
+		FlashcardStats counted = statsCounterService.getStats(userId);
+		FlashcardStats actual = FlashcardStats.from(flashcardRepository.aggregateStatsByUserId(userId));
+		assertThat(counted.getTotalFlashcards()).as("total").isEqualTo(actual.getTotalFlashcards());
+		assertThat(counted.getReviewedFlashcards()).as("reviewed").isEqualTo(actual.getReviewedFlashcards());
+		assertThat(byCategory(counted)).isEqualTo(byCategory(actual));
+	}
+
+	// categoria (0 = sem categoria) -> [total, revisados]; sem categoria só entra se tiver cards
+	private static TreeMap<Long, List<Long>> byCategory(FlashcardStats stats) {
+		TreeMap<Long, List<Long>> counts = new TreeMap<>();
+		for (CategoryStats category : stats.getCategories()) {
+			if (category.getCategoryId() != null || category.getTotalFlashcards() > 0) {
+				counts.put(category.getCategoryId() != null ? category.getCategoryId() : 0L,
+					List.of(category.getTotalFlashcards(), category.getReviewedFlashcards()));
+			}
+		}
+		return counts;
+	}
+
+	private Category category(String name) {
+		Category category = new Category();
+		category.setName(name);
+		return categoryService.createCategory(category, userId);
+	}
+
+	private Flashcard card(String question, Category category) {
+		return flashcardService.createFlashcard(details(question, category), userId);
+	}
+
+	private static Flashcard details(String question, Category category) {
+		Flashcard flashcard = new Flashcard();
+		flashcard.setQuestion(question);
+		flashcard.setAnswer("resposta " + question);
+		if (category != null) {
+			Category reference = new Category();
+			reference.setId(category.getId());
+			flashcard.setCategory(reference);
+		}
+		return flashcard;
+	}
+
+	private static BulkOperationRequest.Filter filter(Long categoryId, boolean uncategorized, Boolean reviewed) {
+		BulkOperationRequest.Filter filter = new BulkOperationRequest.Filter();
+		filter.setCategoryId(categoryId);
+		filter.setUncategorized(uncategorized);
+		filter.setReviewed(reviewed);
+		return filter;
+	}
+
+	private void bulk(Operation operation, List<Long> ids, BulkOperationRequest.Filter filter, Long targetCategoryId) {
+		BulkOperationRequest request = new BulkOperationRequest();
+		request.setOperation(operation);
+		request.setIds(ids);
+		request.setFilter(filter);
+		request.setTargetCategoryId(targetCategoryId);
+		flashcardService.bulkOperation(request, userId);
+	}
+}